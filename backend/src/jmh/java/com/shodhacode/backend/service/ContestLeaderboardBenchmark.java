@@ -0,0 +1,120 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.ScoringMode;
+import com.shodhacode.backend.model.SubmissionStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard computation over a contest's verdicts: rebuilding a board from scratch (what a
+ * restart does), applying one more verdict to a full board, and reading the first page.
+ * Verdicts are spread over one user per 20 submissions and six problems.
+ * <p>
+ * The verdicts applied to the full board are new ones, never replays of those it was built
+ * from, which the board would skip: newcomers joining after the last submission, each
+ * submitting every problem once. The board is rebuilt for every iteration, so that it only
+ * grows by what one iteration adds.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ContestLeaderboardBenchmark {
+
+    private static final int PROBLEMS = 6;
+    private static final int TESTS = 10;
+    private static final SubmissionStatus[] OUTCOMES = {SubmissionStatus.ACCEPTED, SubmissionStatus.ACCEPTED,
+            SubmissionStatus.WRONG_ANSWER, SubmissionStatus.WRONG_ANSWER, SubmissionStatus.TIMED_OUT,
+            SubmissionStatus.RUNTIME_ERROR, SubmissionStatus.COMPILATION_ERROR};
+
+    @Param({"10000", "100000", "1000000"})
+    public int submissions;
+
+    @Param({"ICPC", "IOI"})
+    public ScoringMode mode;
+
+    private final Instant start = Instant.parse("2025-01-01T10:00:00Z");
+    private String[] users;
+    private long[] problems;
+    private SubmissionStatus[] statuses;
+    private int[] passed;
+    private Instant[] times;
+    private ContestLeaderboard full;
+    private Random fresh;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] names = new String[Math.max(1, submissions / 20)];
+        for (int i = 0; i < names.length; i++) names[i] = "user" + i;
+        users = new String[submissions];
+        problems = new long[submissions];
+        statuses = new SubmissionStatus[submissions];
+        passed = new int[submissions];
+        times = new Instant[submissions];
+        for (int i = 0; i < submissions; i++) {
+            users[i] = names[random.nextInt(names.length)];
+            problems[i] = 1 + random.nextInt(PROBLEMS);
+            statuses[i] = OUTCOMES[random.nextInt(OUTCOMES.length)];
+            passed[i] = statuses[i] == SubmissionStatus.ACCEPTED ? TESTS : random.nextInt(TESTS);
+            times[i] = start.plusSeconds(i * 18_000L / submissions);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBoard() {
+        full = replay();
+        fresh = new Random(7);
+        next = 0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ContestLeaderboard rebuild() {
+        return replay();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public LeaderboardDelta applyOne() {
+        int k = next++;
+        SubmissionStatus status = OUTCOMES[fresh.nextInt(OUTCOMES.length)];
+        int passedTests = status == SubmissionStatus.ACCEPTED ? TESTS : fresh.nextInt(TESTS);
+        full.apply((long) submissions + k, "late" + k / PROBLEMS, 1L + k % PROBLEMS, status, passedTests, TESTS,
+                start.plusSeconds(18_000L + k));
+        return full.drainChanged();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ContestLeaderboard.Page firstPage() {
+        return full.page(0, 100);
+    }
+
+    private ContestLeaderboard replay() {
+        ContestLeaderboard board = new ContestLeaderboard(1L, mode, start, 20);
+        for (int i = 0; i < submissions; i++) {
+            board.apply((long) i, users[i], problems[i], statuses[i], passed[i], TESTS, times[i]);
+        }
+        board.drainChanged();
+        return board;
+    }
+}
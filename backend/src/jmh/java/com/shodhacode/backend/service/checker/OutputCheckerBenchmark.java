@@ -0,0 +1,82 @@
+package com.shodhacode.backend.service.checker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output comparison as done for every test case: the expected file from the test data store
+ * against the program's output. The output differs from the expected file only in trailing
+ * whitespace, which every checker accepts, so each run reads both to the end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputCheckerBenchmark {
+
+    // output size in lines of space-separated numbers
+    @Param({"100", "10000", "100000"})
+    public int lines;
+
+    private Path dir;
+    private Path input;
+    private Path expected;
+    private String actual;
+    private final OutputChecker floats = new TokenChecker(1e-6);
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("checker-bench");
+        input = Files.writeString(dir.resolve("input.txt"), lines + "\n");
+        Random random = new Random(42);
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            out.append(random.nextInt(1_000_000)).append(' ')
+                    .append(random.nextInt(1_000_000)).append(' ')
+                    .append(random.nextDouble() * 1000).append('\n');
+        }
+        expected = Files.writeString(dir.resolve("expected.txt"), out);
+        actual = out + "\n";
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(expected);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public OutputChecker.Result exact() throws IOException {
+        return ExactChecker.INSTANCE.check(input, expected, new StringReader(actual));
+    }
+
+    @Benchmark
+    public OutputChecker.Result tokens() throws IOException {
+        return TokenChecker.EXACT_TOKENS.check(input, expected, new StringReader(actual));
+    }
+
+    @Benchmark
+    public OutputChecker.Result floats() throws IOException {
+        return floats.check(input, expected, new StringReader(actual));
+    }
+}
@@ -0,0 +1,86 @@
+package com.shodhacode.backend.service.execution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Base64 work of a Judge0 round trip: encoding the source and the stdin file of a test
+ * case into the request, and decoding stdout from the response. Judge0 wraps its Base64 at
+ * 76 columns, so the decoded output is wrapped the same way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64Benchmark {
+
+    // stdin and stdout size in bytes
+    @Param({"1024", "1048576", "16777216"})
+    public int size;
+
+    private Path dir;
+    private Path stdin;
+    private String source;
+    private String stdout;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        StringBuilder data = new StringBuilder(size);
+        while (data.length() < size) {
+            data.append(random.nextInt(1_000_000)).append(data.length() % 64 < 8 ? '\n' : ' ');
+        }
+        data.setLength(size);
+        byte[] bytes = data.toString().getBytes(StandardCharsets.US_ASCII);
+        dir = Files.createTempDirectory("base64-bench");
+        stdin = Files.write(dir.resolve("input.txt"), bytes);
+        stdout = Base64.getMimeEncoder().encodeToString(bytes);
+        StringBuilder code = new StringBuilder();
+        while (code.length() < 8 * 1024) {
+            code.append("    long s = 0; for (int i = 0; i < n; i++) s += a[i]; // ünïcode\n");
+        }
+        source = code.toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(stdin);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public String encodeStdin() throws IOException {
+        return Judge0ExecutionEngine.encode(stdin);
+    }
+
+    @Benchmark
+    public String encodeSource() {
+        // as in Judge0ExecutionEngine.execute; the source does not depend on the size
+        return Base64.getEncoder().encodeToString(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public String decodeStdout() {
+        return Judge0ExecutionEngine.decodeBase64(stdout);
+    }
+}
@@ -0,0 +1,104 @@
+package com.shodhacode.backend.web.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shodhacode.backend.model.Submission;
+import com.shodhacode.backend.model.SubmissionStatus;
+import com.shodhacode.backend.model.TestResult;
+import com.shodhacode.backend.service.SubmissionEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the submission payloads on the request path, with an
+ * ObjectMapper configured the way Spring MVC configures its own: the submit request body,
+ * the submission details with their source, the per-test results and an SSE event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    // source size in bytes
+    @Param({"1024", "65536"})
+    public int codeSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private byte[] requestJson;
+    private SubmissionDetails details;
+    private List<TestResult> tests;
+    private SubmissionEvent event;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder code = new StringBuilder();
+        while (code.length() < codeSize) {
+            code.append("for i in range(n):\n    total += int(\"\\t\" + a[i])  # \u00e9\n");
+        }
+        code.setLength(codeSize);
+
+        SubmissionRequest request = new SubmissionRequest();
+        request.setContestId(1L);
+        request.setProblemId(2L);
+        request.setUsername("alice");
+        request.setLanguage("python");
+        request.setCode(code.toString());
+        requestJson = objectMapper.writeValueAsBytes(request);
+
+        Submission submission = new Submission();
+        submission.setId(12345L);
+        submission.setUsername("alice");
+        submission.setLanguage("python");
+        submission.setCode(code.toString());
+        submission.setStatus(SubmissionStatus.WRONG_ANSWER);
+        submission.setResultMessage("Wrong answer on test 7: expected '42', found '41'");
+        submission.setCreatedAt(Instant.parse("2025-01-01T10:00:00Z"));
+        submission.setFinishedAt(Instant.parse("2025-01-01T10:00:03Z"));
+        details = new SubmissionDetails(submission);
+
+        tests = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            tests.add(new TestResult(12345L, i, i < 7 ? SubmissionStatus.ACCEPTED : SubmissionStatus.WRONG_ANSWER,
+                    120L + i, 95L + i, 18_000L + i, 0));
+        }
+        event = SubmissionEvent.progress(12345L, 7, 7, 20);
+    }
+
+    @Benchmark
+    public SubmissionRequest readRequest() throws IOException {
+        return objectMapper.readValue(requestJson, SubmissionRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeDetails() throws IOException {
+        return objectMapper.writeValueAsBytes(details);
+    }
+
+    @Benchmark
+    public byte[] writeTestResults() throws IOException {
+        return objectMapper.writeValueAsBytes(tests);
+    }
+
+    @Benchmark
+    public String writeEvent() throws IOException {
+        return objectMapper.writeValueAsString(event);
+    }
+}
@@ -0,0 +1,271 @@
+package com.shodhacode.backend.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for Judge0's {@code /submissions} API so the backend can be load tested without
+ * the public endpoint: {@code POST /submissions?wait=true} for the single mode, and
+ * {@code POST /submissions/batch} with {@code GET /submissions/batch?tokens=} for the batch
+ * mode. Nothing is executed.
+ * <p>
+ * Each run takes a latency drawn from a log-normal distribution given by its median and
+ * 99th percentile. The outcome is drawn from the verdict mix by a hash of the source, so all
+ * test runs of one submission agree. Accepted runs print the expected output when the input
+ * is a known sample (see {@link #answer}) and echo the input otherwise; wrong answers print
+ * something else, since Judge0 leaves the comparison to the backend too.
+ */
+class Judge0Stub {
+
+    enum Verdict {
+        ACCEPTED(3, "Accepted"),
+        WRONG_ANSWER(3, "Accepted"),
+        TIME_LIMIT(5, "Time Limit Exceeded"),
+        COMPILATION_ERROR(6, "Compilation Error"),
+        RUNTIME_ERROR(11, "Runtime Error (NZEC)");
+
+        final int statusId;
+        final String description;
+
+        Verdict(int statusId, String description) {
+            this.statusId = statusId;
+            this.description = description;
+        }
+    }
+
+    private static final TypeReference<Map<String, Object>> OBJECT = new TypeReference<>() {};
+
+    private record Run(long readyAtNanos, Map<String, Object> result) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final double medianMs;
+    private final double sigma;
+    private final Verdict[] verdictTable;
+    private final Map<String, String> answers = new ConcurrentHashMap<>();
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+
+    /**
+     * {@code verdicts} maps each outcome to its relative weight.
+     */
+    Judge0Stub(int port, double medianMs, double p99Ms, Map<Verdict, Integer> verdicts) throws IOException {
+        this.medianMs = medianMs;
+        // p99 of a log-normal is median * e^(2.326 sigma)
+        this.sigma = p99Ms > medianMs ? Math.log(p99Ms / medianMs) / 2.326 : 0;
+        List<Verdict> table = new ArrayList<>();
+        verdicts.forEach((verdict, weight) -> {
+            for (int i = 0; i < weight; i++) table.add(verdict);
+        });
+        if (table.isEmpty()) throw new IllegalArgumentException("verdict mix has no weight");
+        this.verdictTable = table.toArray(new Verdict[0]);
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/submissions", this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    long getExecuted() {
+        return executed.get();
+    }
+
+    /**
+     * Registers the expected output for an input, e.g. from a contest's sample test cases.
+     */
+    void answer(String input, String expectedOutput) {
+        answers.put(input.strip(), expectedOutput);
+    }
+
+    /**
+     * Parses a verdict mix such as {@code accepted=70,wrong_answer=15,time_limit=5}.
+     */
+    static Map<Verdict, Integer> parseVerdicts(String spec) {
+        Map<Verdict, Integer> verdicts = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("expected outcome=weight, got " + part);
+            verdicts.put(Verdict.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return verdicts;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            if (method.equals("POST") && path.equals("/submissions")) {
+                Map<String, Object> body = objectMapper.readValue(exchange.getRequestBody(), OBJECT);
+                Run run = execute(body);
+                if ("true".equals(query.get("wait"))) {
+                    sleepUntil(run.readyAtNanos());
+                    respond(exchange, 201, run.result());
+                } else {
+                    respond(exchange, 201, Map.of("token", enqueue(run)));
+                }
+            } else if (method.equals("POST") && path.equals("/submissions/batch")) {
+                Map<String, Object> body = objectMapper.readValue(exchange.getRequestBody(), OBJECT);
+                List<Map<String, Object>> tokens = new ArrayList<>();
+                for (Object submission : (List<?>) body.get("submissions")) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> single = (Map<String, Object>) submission;
+                    tokens.add(Map.of("token", enqueue(execute(single))));
+                }
+                respond(exchange, 201, tokens);
+            } else if (method.equals("GET") && path.equals("/submissions/batch")) {
+                List<Map<String, Object>> results = new ArrayList<>();
+                for (String token : query.getOrDefault("tokens", "").split(",")) {
+                    if (!token.isEmpty()) results.add(poll(token));
+                }
+                respond(exchange, 200, Map.of("submissions", results));
+            } else if (method.equals("GET") && path.startsWith("/submissions/")) {
+                respond(exchange, 200, poll(path.substring("/submissions/".length())));
+            } else {
+                respond(exchange, 404, Map.of("error", "not found"));
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 422, Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private Run execute(Map<String, Object> body) {
+        executed.incrementAndGet();
+        String source = decode((String) body.get("source_code"));
+        String stdin = decode((String) body.get("stdin"));
+        Verdict verdict = verdictTable[Math.floorMod(mix(source.hashCode()), verdictTable.length)];
+        long latencyNanos = (long) (medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()) * 1e6);
+        double cpuLimit = body.get("cpu_time_limit") instanceof Number n ? n.doubleValue() : 2.0;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", Map.of("id", verdict.statusId, "description", verdict.description));
+        result.put("stdout", null);
+        result.put("stderr", null);
+        result.put("compile_output", null);
+        result.put("exit_code", 0);
+        result.put("memory", 9000 + ThreadLocalRandom.current().nextInt(1000));
+        double seconds = latencyNanos / 1e9;
+        result.put("time", format(verdict == Verdict.TIME_LIMIT ? cpuLimit : Math.min(seconds, cpuLimit)));
+        result.put("wall_time", format(verdict == Verdict.TIME_LIMIT ? cpuLimit : seconds));
+        switch (verdict) {
+            case ACCEPTED -> result.put("stdout", encode(answers.getOrDefault(stdin.strip(), stdin)));
+            case WRONG_ANSWER -> result.put("stdout", encode("stub wrong answer\n"));
+            case COMPILATION_ERROR -> {
+                result.put("compile_output", encode("stub: syntax error\n"));
+                result.put("exit_code", null);
+            }
+            case RUNTIME_ERROR -> {
+                result.put("stderr", encode("stub: runtime error\n"));
+                result.put("exit_code", 1);
+            }
+            case TIME_LIMIT -> result.put("exit_code", null);
+        }
+        return new Run(System.nanoTime() + latencyNanos, result);
+    }
+
+    private String enqueue(Run run) {
+        String token = UUID.randomUUID().toString();
+        run.result().put("token", token);
+        runs.put(token, run);
+        return token;
+    }
+
+    private Map<String, Object> poll(String token) {
+        Run run = runs.get(token);
+        if (run == null) return Map.of("token", token, "status", Map.of("id", 14, "description", "Unknown token"));
+        if (System.nanoTime() < run.readyAtNanos()) {
+            return Map.of("token", token, "status", Map.of("id", 2, "description", "Processing"));
+        }
+        runs.remove(token);
+        return run.result();
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> query = new HashMap<>();
+        if (raw == null) return query;
+        for (String pair : raw.split("&")) {
+            String[] kv = pair.split("=", 2);
+            query.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8),
+                    kv.length > 1 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static void sleepUntil(long nanos) {
+        long remaining = nanos - System.nanoTime();
+        if (remaining <= 0) return;
+        try {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // sources differ only in a counter, so spread their hashes before picking a verdict
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private static String decode(String base64) {
+        if (base64 == null) return "";
+        return new String(Base64.getMimeDecoder().decode(base64), StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String format(double seconds) {
+        return String.format(Locale.ROOT, "%.3f", seconds);
+    }
+}
@@ -0,0 +1,63 @@
+package com.shodhacode.backend.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps every sample of one measured operation, so percentiles are exact rather than
+ * bucketed; a load test run records a few hundred thousand samples at most.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private int errors;
+    private String lastError;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+        samples[count++] = nanos;
+    }
+
+    synchronized void error(String cause) {
+        errors++;
+        lastError = cause;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized int errors() {
+        return errors;
+    }
+
+    /**
+     * Count, errors, throughput over {@code elapsedNanos} and latency percentiles in ms.
+     */
+    synchronized Map<String, Object> summary(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSec", round(elapsedNanos > 0 ? count * 1e9 / elapsedNanos : 0));
+        summary.put("p50Ms", millis(sorted, 0.50));
+        summary.put("p99Ms", millis(sorted, 0.99));
+        summary.put("p999Ms", millis(sorted, 0.999));
+        summary.put("maxMs", millis(sorted, 1.0));
+        if (lastError != null) summary.put("lastError", lastError);
+        return summary;
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
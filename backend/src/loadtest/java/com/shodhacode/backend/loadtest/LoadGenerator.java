@@ -0,0 +1,270 @@
+package com.shodhacode.backend.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Drives a running backend at a fixed rate: submissions to {@code POST /api/submissions},
+ * each followed by status polls until its verdict, and leaderboard page reads alongside.
+ * <p>
+ * The load is open-loop. Every request has an intended start time on a fixed schedule and
+ * its latency is measured from that time, so a backend that falls behind shows up in the
+ * percentiles instead of quietly slowing the generator down. Time to verdict runs from the
+ * intended submit time to the first poll that sees a final status.
+ * <p>
+ * Requests scheduled during the warm-up, which lets the backend's JIT and pools settle, are
+ * sent like any other but left out of the report.
+ */
+class LoadGenerator {
+
+    /**
+     * {@code submitRate} and {@code leaderboardRate} are per second; a rate of 0 turns that
+     * stream off.
+     */
+    record Options(String baseUrl, long contestId, double submitRate, double leaderboardRate, Duration warmup,
+                   Duration duration, Duration pollInterval, Duration verdictTimeout, int users, String language) {
+    }
+
+    private static final TypeReference<Map<String, Object>> OBJECT = new TypeReference<>() {};
+
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final LatencyRecorder submits = new LatencyRecorder();
+    private final LatencyRecorder polls = new LatencyRecorder();
+    private final LatencyRecorder leaderboards = new LatencyRecorder();
+    private final LatencyRecorder verdicts = new LatencyRecorder();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger unfinished = new AtomicInteger();
+    private final AtomicLong lastVerdictNanos = new AtomicLong();
+    private final Map<String, AtomicInteger> verdictCounts = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private long measureFrom;
+
+    LoadGenerator(Options options) {
+        this.options = options;
+    }
+
+    /**
+     * The contest's problems with their sample tests, as served to contestants.
+     */
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> problems() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send(HttpRequest.newBuilder(uri("/api/contests/" + options.contestId()))
+                .GET().build());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET contest " + options.contestId() + " returned HTTP "
+                    + response.statusCode());
+        }
+        List<Map<String, Object>> problems =
+                (List<Map<String, Object>>) objectMapper.readValue(response.body(), OBJECT).get("problems");
+        if (problems == null || problems.isEmpty()) {
+            throw new IllegalStateException("contest " + options.contestId() + " has no problems");
+        }
+        return problems;
+    }
+
+    /**
+     * Runs the load for the configured duration, waits for outstanding verdicts and returns
+     * the report.
+     */
+    Map<String, Object> run(List<Map<String, Object>> problems) throws InterruptedException {
+        List<Long> problemIds = problems.stream().map(p -> ((Number) p.get("id")).longValue()).toList();
+        long start = System.nanoTime();
+        measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        List<Thread> schedulers = new ArrayList<>();
+        if (options.submitRate() > 0) {
+            schedulers.add(Thread.ofPlatform().name("load-submit").start(() ->
+                    schedule(start, end, options.submitRate(), intended -> submit(intended, problemIds))));
+        }
+        if (options.leaderboardRate() > 0) {
+            schedulers.add(Thread.ofPlatform().name("load-leaderboard").start(() ->
+                    schedule(start, end, options.leaderboardRate(), this::readLeaderboard)));
+        }
+        for (Thread scheduler : schedulers) scheduler.join();
+        long loadEnd = System.nanoTime();
+
+        executor.shutdown();
+        if (!executor.awaitTermination(options.verdictTimeout().toMillis() + 10_000, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+        http.shutdownNow();
+        return report(measureFrom, loadEnd, System.nanoTime());
+    }
+
+    private void schedule(long start, long end, double ratePerSec, LongConsumer task) {
+        double periodNanos = 1e9 / ratePerSec;
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * periodNanos);
+            if (intended >= end) return;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            executor.execute(() -> task.accept(intended));
+        }
+    }
+
+    private void submit(long intended, List<Long> problemIds) {
+        long n = sequence.getAndIncrement();
+        boolean measured = intended >= measureFrom;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("contestId", options.contestId());
+        body.put("problemId", problemIds.get(ThreadLocalRandom.current().nextInt(problemIds.size())));
+        body.put("username", "load-user-" + (n % options.users()));
+        body.put("language", options.language());
+        body.put("code", source(n));
+
+        Long id;
+        try {
+            HttpResponse<byte[]> response = send(HttpRequest.newBuilder(uri("/api/submissions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build());
+            if (response.statusCode() == 429) {
+                if (measured) {
+                    rejected.incrementAndGet();
+                    submits.record(System.nanoTime() - intended);
+                }
+                return;
+            }
+            if (response.statusCode() != 200) {
+                if (measured) submits.error("HTTP " + response.statusCode());
+                return;
+            }
+            if (measured) submits.record(System.nanoTime() - intended);
+            id = objectMapper.readValue(response.body(), Long.class);
+        } catch (IOException | InterruptedException e) {
+            if (measured) submits.error(e.toString());
+            return;
+        }
+        awaitVerdict(id, intended, measured);
+    }
+
+    private void awaitVerdict(Long id, long intended, boolean measured) {
+        long deadline = System.nanoTime() + options.verdictTimeout().toNanos();
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/submissions/" + id)).GET().build();
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(options.pollInterval().toMillis());
+                long sent = System.nanoTime();
+                HttpResponse<byte[]> response;
+                try {
+                    response = send(request);
+                } catch (IOException e) {
+                    if (measured) polls.error(e.toString());
+                    continue;
+                }
+                if (response.statusCode() != 200) {
+                    if (measured) polls.error("HTTP " + response.statusCode());
+                    continue;
+                }
+                long now = System.nanoTime();
+                if (measured) polls.record(now - sent);
+                Object status = objectMapper.readValue(response.body(), OBJECT).get("status");
+                if (status != null && !"PENDING".equals(status) && !"RUNNING".equals(status)) {
+                    if (measured) {
+                        verdicts.record(now - intended);
+                        lastVerdictNanos.accumulateAndGet(now, Math::max);
+                        verdictCounts.computeIfAbsent(status.toString(), s -> new AtomicInteger()).incrementAndGet();
+                    }
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            if (measured) polls.error(e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (measured) unfinished.incrementAndGet();
+    }
+
+    private void readLeaderboard(long intended) {
+        boolean measured = intended >= measureFrom;
+        try {
+            HttpResponse<byte[]> response = send(HttpRequest.newBuilder(
+                    uri("/api/contests/" + options.contestId() + "/leaderboard?limit=100")).GET().build());
+            if (!measured) return;
+            if (response.statusCode() == 200) {
+                leaderboards.record(System.nanoTime() - intended);
+            } else {
+                leaderboards.error("HTTP " + response.statusCode());
+            }
+        } catch (IOException | InterruptedException e) {
+            if (measured) leaderboards.error(e.toString());
+        }
+    }
+
+    private Map<String, Object> report(long start, long loadEnd, long runEnd) {
+        long loadNanos = loadEnd - start;
+        long verdictNanos = Math.max(lastVerdictNanos.get(), loadEnd) - start;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", options.baseUrl());
+        report.put("contestId", options.contestId());
+        report.put("targetSubmitRate", options.submitRate());
+        report.put("targetLeaderboardRate", options.leaderboardRate());
+        report.put("warmupSec", options.warmup().toSeconds());
+        report.put("durationSec", options.duration().toSeconds());
+        report.put("submit", submits.summary(loadNanos));
+        // polling goes on until the last verdict
+        report.put("statusPoll", polls.summary(runEnd - start));
+        report.put("leaderboard", leaderboards.summary(loadNanos));
+        report.put("timeToVerdict", verdicts.summary(verdictNanos));
+        report.put("rejected429", rejected.get());
+        report.put("unfinished", unfinished.get());
+        Map<String, Integer> counts = new TreeMap<>();
+        verdictCounts.forEach((status, count) -> counts.put(status, count.get()));
+        report.put("verdicts", counts);
+        return report;
+    }
+
+    // unique per submission, so that the backend's verdict cache does not answer it
+    private String source(long n) {
+        String tag = "load test submission " + n;
+        return switch (options.language().toLowerCase()) {
+            case "java" -> "// " + tag + "\npublic class Main { public static void main(String[] a) throws Exception "
+                    + "{ System.out.print(new String(System.in.readAllBytes())); } }\n";
+            case "cpp", "c++" -> "// " + tag + "\n#include <iostream>\nint main() { std::cout << std::cin.rdbuf(); }\n";
+            default -> "# " + tag + "\nimport sys\nprint(sys.stdin.read().strip())\n";
+        };
+    }
+
+    private URI uri(String path) {
+        return URI.create(options.baseUrl() + path);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
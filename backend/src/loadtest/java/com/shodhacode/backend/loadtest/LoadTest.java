@@ -0,0 +1,128 @@
+package com.shodhacode.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line entry point of the load test harness.
+ * <pre>
+ *   java -jar target/loadtest.jar stub [--port=2358] [stub options]
+ *   java -jar target/loadtest.jar run [--stub-port=2358] [stub options] [load options]
+ * </pre>
+ * {@code stub} serves the Judge0 stub until killed. {@code run} drives the backend and
+ * prints the report; with {@code --stub-port} it also starts the stub in-process and teaches
+ * it the contest's sample answers, so accepted runs really are accepted. Either way the
+ * backend must be started with {@code judge.judge0.base-url} pointing at the stub.
+ */
+public class LoadTest {
+
+    private static final String USAGE = """
+            usage: loadtest stub [options] | loadtest run [options]
+              stub options:
+                --port=2358                   port of a standalone stub
+                --latency-ms=50:250           median:p99 of the simulated run time
+                --verdicts=accepted=70,wrong_answer=15,time_limit=5,runtime_error=5,compilation_error=5
+              run options:
+                --base-url=http://localhost:8081
+                --contest=1
+                --rate=20                     submissions per second
+                --leaderboard-rate=10         leaderboard reads per second
+                --warmup-sec=10               load that is sent but left out of the report
+                --duration-sec=60
+                --poll-interval-ms=250        status polls per submission until its verdict
+                --verdict-timeout-sec=120
+                --users=200
+                --language=python
+                --stub-port=                  also start the stub in-process on this port
+                --out=                        write the report as JSON to this file
+            """;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !(args[0].equals("stub") || args[0].equals("run"))) {
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+        Map<String, String> opts = parse(args);
+        if (args[0].equals("stub")) {
+            Judge0Stub stub = stub(opts, Integer.parseInt(opts.getOrDefault("port", "2358")));
+            stub.start();
+            System.out.println("Judge0 stub listening on port " + stub.getPort());
+            Thread.currentThread().join();
+            return;
+        }
+
+        LoadGenerator.Options options = new LoadGenerator.Options(
+                opts.getOrDefault("base-url", "http://localhost:8081"),
+                Long.parseLong(opts.getOrDefault("contest", "1")),
+                Double.parseDouble(opts.getOrDefault("rate", "20")),
+                Double.parseDouble(opts.getOrDefault("leaderboard-rate", "10")),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("warmup-sec", "10"))),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("duration-sec", "60"))),
+                Duration.ofMillis(Long.parseLong(opts.getOrDefault("poll-interval-ms", "250"))),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("verdict-timeout-sec", "120"))),
+                Integer.parseInt(opts.getOrDefault("users", "200")),
+                opts.getOrDefault("language", "python"));
+        LoadGenerator generator = new LoadGenerator(options);
+        List<Map<String, Object>> problems = generator.problems();
+
+        Judge0Stub stub = null;
+        if (opts.containsKey("stub-port")) {
+            stub = stub(opts, Integer.parseInt(opts.get("stub-port")));
+            for (Map<String, Object> problem : problems) {
+                if (!(problem.get("testCases") instanceof List<?> samples)) continue;
+                for (Object sample : samples) {
+                    if (sample instanceof Map<?, ?> test && test.get("inputData") != null) {
+                        stub.answer(test.get("inputData").toString(), String.valueOf(test.get("expectedOutput")));
+                    }
+                }
+            }
+            stub.start();
+        }
+
+        System.out.println("Driving " + options.baseUrl() + " contest " + options.contestId() + " at "
+                + options.submitRate() + " submissions/s and " + options.leaderboardRate()
+                + " leaderboard reads/s for " + options.warmup().toSeconds() + "s warm-up and "
+                + options.duration().toSeconds() + "s measured");
+        Map<String, Object> report = generator.run(problems);
+        if (stub != null) {
+            report.put("stubRequests", stub.getRequests());
+            report.put("stubRuns", stub.getExecuted());
+            stub.stop();
+        }
+
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        System.out.println(json);
+        if (opts.containsKey("out")) {
+            Files.writeString(Path.of(opts.get("out")), json);
+        }
+    }
+
+    private static Judge0Stub stub(Map<String, String> opts, int port) throws Exception {
+        String[] latency = opts.getOrDefault("latency-ms", "50:250").split(":");
+        double median = Double.parseDouble(latency[0]);
+        double p99 = latency.length > 1 ? Double.parseDouble(latency[1]) : median;
+        return new Judge0Stub(port, median, p99, Judge0Stub.parseVerdicts(opts.getOrDefault("verdicts",
+                "accepted=70,wrong_answer=15,time_limit=5,runtime_error=5,compilation_error=5")));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.print("bad option " + arg + "\n" + USAGE);
+                System.exit(2);
+            }
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return opts;
+    }
+}
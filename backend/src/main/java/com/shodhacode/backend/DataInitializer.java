@@ -2,6 +2,11 @@ package com.shodhacode.backend;
 
 import com.shodhacode.backend.model.*;
 import com.shodhacode.backend.repo.ContestRepository;
+import com.shodhacode.backend.service.JudgeRole;
+import com.shodhacode.backend.service.TestDataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,22 +15,30 @@ import java.util.List;
 
 @Configuration
 public class DataInitializer {
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
     @Bean
-    CommandLineRunner init(ContestRepository contestRepository) {
+    CommandLineRunner init(ContestRepository contestRepository, TestDataStore testData,
+                           @Value("${judge.role:all}") String role) {
         return args -> {
-            if (contestRepository.count() == 0) {
+            // workers share the API node's database and leave seeding to it
+            if (JudgeRole.fromName(role).acceptsSubmissions() && contestRepository.count() == 0) {
                 Contest c = new Contest("Sample Contest");
 
                 Problem p1 = new Problem("Sum Two", "Read two integers and print their sum");
-                p1.getTestCases().add(new TestCase("1 2", "3"));
-                p1.getTestCases().add(new TestCase("10 20", "30"));
+                p1.setTimeLimitMs(1000L);
+                p1.setMemoryLimitMb(256);
+                TestCase example = testData.testCase("1 2", "3");
+                example.setSample(true);
+                p1.getTestCases().add(example);
+                p1.getTestCases().add(testData.testCase("10 20", "30"));
 
                 Problem p2 = new Problem("Echo", "Echo the input line");
-                p2.getTestCases().add(new TestCase("hello", "hello"));
+                p2.getTestCases().add(testData.testCase("hello", "hello"));
 
                 c.setProblems(List.of(p1, p2));
                 contestRepository.save(c);
-                System.out.println("Inserted sample contest with id=" + c.getId());
+                log.info("Inserted sample contest with id={}", c.getId());
             }
         };
     }
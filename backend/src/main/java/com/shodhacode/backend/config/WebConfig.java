@@ -16,6 +16,7 @@ public class WebConfig {
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-Queue-Position", "Retry-After", "X-Trace-Id", "X-Leaderboard-Sequence")
                         .allowCredentials(true);
             }
         };
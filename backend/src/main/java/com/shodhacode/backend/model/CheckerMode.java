@@ -0,0 +1,15 @@
+package com.shodhacode.backend.model;
+
+/**
+ * How a problem's expected output is compared with a program's output.
+ */
+public enum CheckerMode {
+    /** Line by line; trailing whitespace on a line, CRLF vs LF and trailing blank lines are ignored. */
+    EXACT,
+    /** Whitespace-separated tokens must match; how they are spaced or split into lines does not matter. */
+    TOKENS,
+    /** Like TOKENS, but numeric tokens match within the problem's absolute or relative epsilon. */
+    FLOAT,
+    /** An external checker program decides, given the input, expected and actual output files. */
+    CUSTOM
+}
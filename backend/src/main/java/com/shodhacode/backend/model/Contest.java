@@ -1,18 +1,34 @@
 package com.shodhacode.backend.model;
 
+import com.shodhacode.backend.service.CatalogInvalidator;
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogInvalidator.class)
 public class Contest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // bumped by every change, including to the problem list; part of the contest page's ETag
+    @Version
+    private Long version;
+
     private String name;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @Enumerated(EnumType.STRING)
+    private ScoringMode scoringMode = ScoringMode.ICPC;
+
+    // ICPC penalty time is counted from here
+    private Instant startTime = Instant.now();
+
+    // ICPC penalty per rejected attempt on a problem that is eventually solved
+    private int penaltyMinutes = 20;
+
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Problem> problems = new ArrayList<>();
 
     public Contest() {
@@ -30,6 +46,10 @@ public class Contest {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getName() {
         return name;
     }
@@ -38,6 +58,30 @@ public class Contest {
         this.name = name;
     }
 
+    public ScoringMode getScoringMode() {
+        return scoringMode;
+    }
+
+    public void setScoringMode(ScoringMode scoringMode) {
+        this.scoringMode = scoringMode;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public int getPenaltyMinutes() {
+        return penaltyMinutes;
+    }
+
+    public void setPenaltyMinutes(int penaltyMinutes) {
+        this.penaltyMinutes = penaltyMinutes;
+    }
+
     public List<Problem> getProblems() {
         return problems;
     }
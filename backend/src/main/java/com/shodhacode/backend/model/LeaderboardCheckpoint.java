@@ -0,0 +1,43 @@
+package com.shodhacode.backend.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * How far the leaderboards have been kept up to date: verdicts of submissions that finished
+ * before {@code appliedUntil} have reached the score table. A single row, written
+ * periodically by the node that owns the leaderboards.
+ */
+@Entity
+public class LeaderboardCheckpoint {
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private Instant appliedUntil;
+
+    public LeaderboardCheckpoint() {
+    }
+
+    public LeaderboardCheckpoint(Instant appliedUntil) {
+        this.id = ID;
+        this.appliedUntil = appliedUntil;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getAppliedUntil() {
+        return appliedUntil;
+    }
+
+    public void setAppliedUntil(Instant appliedUntil) {
+        this.appliedUntil = appliedUntil;
+    }
+}
@@ -1,21 +1,41 @@
 package com.shodhacode.backend.model;
 
+import com.shodhacode.backend.service.CatalogInvalidator;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogInvalidator.class)
 public class Problem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // bumped by every change, including edits to the test cases
+    @Version
+    private Long version;
+
     private String title;
 
     @Column(length = 2000)
     private String description;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @Enumerated(EnumType.STRING)
+    private CheckerMode checkerMode = CheckerMode.EXACT;
+
+    // tolerance for CheckerMode.FLOAT
+    private double checkerEpsilon = 1e-6;
+
+    // command line for CheckerMode.CUSTOM; input, expected and actual output paths are appended
+    private String checkerCommand;
+
+    // CPU time and memory per test run; null means the judge defaults (judge.limits.*)
+    private Long timeLimitMs;
+    private Integer memoryLimitMb;
+
+    // test data is only loaded by the judge and for sample previews
+    @ElementCollection(fetch = FetchType.LAZY)
     private List<TestCase> testCases = new ArrayList<>();
 
     public Problem() {
@@ -34,6 +54,10 @@ public class Problem {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -50,6 +74,46 @@ public class Problem {
         this.description = description;
     }
 
+    public CheckerMode getCheckerMode() {
+        return checkerMode;
+    }
+
+    public void setCheckerMode(CheckerMode checkerMode) {
+        this.checkerMode = checkerMode;
+    }
+
+    public double getCheckerEpsilon() {
+        return checkerEpsilon;
+    }
+
+    public void setCheckerEpsilon(double checkerEpsilon) {
+        this.checkerEpsilon = checkerEpsilon;
+    }
+
+    public String getCheckerCommand() {
+        return checkerCommand;
+    }
+
+    public void setCheckerCommand(String checkerCommand) {
+        this.checkerCommand = checkerCommand;
+    }
+
+    public Long getTimeLimitMs() {
+        return timeLimitMs;
+    }
+
+    public void setTimeLimitMs(Long timeLimitMs) {
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    public Integer getMemoryLimitMb() {
+        return memoryLimitMb;
+    }
+
+    public void setMemoryLimitMb(Integer memoryLimitMb) {
+        this.memoryLimitMb = memoryLimitMb;
+    }
+
     public List<TestCase> getTestCases() {
         return testCases;
     }
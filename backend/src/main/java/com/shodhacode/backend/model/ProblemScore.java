@@ -0,0 +1,124 @@
+package com.shodhacode.backend.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One user's scoring state on one problem of a contest, updated as verdicts arrive so that
+ * leaderboards are restored from these rows instead of from every submission.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_problem_score",
+        columnNames = {"contest_id", "username", "problem_id"}))
+public class ProblemScore {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "contest_id")
+    private Long contestId;
+
+    private String username;
+
+    @Column(name = "problem_id")
+    private Long problemId;
+
+    // the rejected submissions before the first accepted one (ICPC); kept rather than counted
+    // because verdicts can arrive out of submission order
+    @ElementCollection
+    @CollectionTable(name = "problem_score_rejection", joinColumns = @JoinColumn(name = "problem_score_id"))
+    private List<Rejection> rejections = new ArrayList<>();
+
+    // submission time of the first accepted submission (ICPC)
+    private Instant solvedAt;
+
+    // best points of any submission (IOI)
+    private int bestPoints;
+
+    public ProblemScore() {
+    }
+
+    public ProblemScore(Long contestId, String username, Long problemId) {
+        this.contestId = contestId;
+        this.username = username;
+        this.problemId = problemId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getContestId() {
+        return contestId;
+    }
+
+    public void setContestId(Long contestId) {
+        this.contestId = contestId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public void setProblemId(Long problemId) {
+        this.problemId = problemId;
+    }
+
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<Rejection> rejections) {
+        this.rejections = rejections;
+    }
+
+    /**
+     * A copy of the current state, to be written while the original keeps changing.
+     */
+    public ProblemScore snapshot() {
+        ProblemScore copy = new ProblemScore(contestId, username, problemId);
+        copy.id = id;
+        copy.rejections = new ArrayList<>(rejections);
+        copy.solvedAt = solvedAt;
+        copy.bestPoints = bestPoints;
+        return copy;
+    }
+
+    public int getRejectedAttempts() {
+        return rejections.size();
+    }
+
+    public Instant getSolvedAt() {
+        return solvedAt;
+    }
+
+    public void setSolvedAt(Instant solvedAt) {
+        this.solvedAt = solvedAt;
+    }
+
+    public boolean isSolved() {
+        return solvedAt != null;
+    }
+
+    public int getBestPoints() {
+        return bestPoints;
+    }
+
+    public void setBestPoints(int bestPoints) {
+        this.bestPoints = bestPoints;
+    }
+}
@@ -0,0 +1,42 @@
+package com.shodhacode.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.Instant;
+
+/**
+ * A rejected submission counted against a problem score: its id, so that the same verdict is
+ * never counted twice, and its submission time, which decides whether it is before the solve.
+ */
+@Embeddable
+public class Rejection {
+    @Column(name = "submission_id")
+    private Long submissionId;
+    @Column(name = "submitted_at")
+    private Instant submittedAt;
+
+    public Rejection() {
+    }
+
+    public Rejection(Long submissionId, Instant submittedAt) {
+        this.submissionId = submissionId;
+        this.submittedAt = submittedAt;
+    }
+
+    public Long getSubmissionId() {
+        return submissionId;
+    }
+
+    public void setSubmissionId(Long submissionId) {
+        this.submissionId = submissionId;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.shodhacode.backend.model;
+
+public enum ScoringMode {
+    /** Ranked by solved problems, then by penalty minutes (solve time plus wrong attempts). */
+    ICPC,
+    /** Ranked by points: each problem is worth 100, split evenly over its test cases. */
+    IOI
+}
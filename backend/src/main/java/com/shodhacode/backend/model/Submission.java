@@ -4,6 +4,13 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_submission_contest_status", columnList = "contest_id, status"),
+        @Index(name = "idx_submission_contest_user", columnList = "contest_id, username, created_at"),
+        @Index(name = "idx_submission_problem_created", columnList = "problem_id, created_at"),
+        @Index(name = "idx_submission_status", columnList = "status, id"),
+        @Index(name = "idx_submission_finished", columnList = "finished_at")
+})
 public class Submission {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,10 +24,10 @@ public class Submission {
 
     private String username;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Contest contest;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Problem problem;
 
     @Enumerated(EnumType.STRING)
@@ -29,9 +36,24 @@ public class Submission {
     @Column(length = 2000)
     private String resultMessage;
 
+    private Integer passedTests;
+    private Integer totalTests;
+    // tests finished so far while RUNNING, written behind by the judge
+    private Integer completedTests;
+
     private Instant createdAt = Instant.now();
     private Instant finishedAt;
 
+    // set while a judge worker holds the submission; an expired lease means the worker is gone
+    @Column(length = 100)
+    private String leaseOwner;
+    private Instant leaseExpiresAt;
+    // how many times a worker has claimed it
+    private Integer attempts;
+    // id of the request that created it, carried into the judge's logs
+    @Column(length = 64)
+    private String traceId;
+
     public Submission() {
     }
 
@@ -100,6 +122,30 @@ public class Submission {
         this.resultMessage = resultMessage;
     }
 
+    public Integer getPassedTests() {
+        return passedTests;
+    }
+
+    public void setPassedTests(Integer passedTests) {
+        this.passedTests = passedTests;
+    }
+
+    public Integer getTotalTests() {
+        return totalTests;
+    }
+
+    public void setTotalTests(Integer totalTests) {
+        this.totalTests = totalTests;
+    }
+
+    public Integer getCompletedTests() {
+        return completedTests;
+    }
+
+    public void setCompletedTests(Integer completedTests) {
+        this.completedTests = completedTests;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -115,4 +161,36 @@ public class Submission {
     public void setFinishedAt(Instant finishedAt) {
         this.finishedAt = finishedAt;
     }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
 }
@@ -7,5 +7,11 @@ public enum SubmissionStatus {
     WRONG_ANSWER,
     COMPILATION_ERROR,
     TIMED_OUT,
-    ERROR
+    MEMORY_LIMIT_EXCEEDED,
+    RUNTIME_ERROR,
+    ERROR;
+
+    public boolean isTerminal() {
+        return this != PENDING && this != RUNNING;
+    }
 }
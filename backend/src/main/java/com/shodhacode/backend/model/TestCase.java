@@ -1,33 +1,70 @@
 package com.shodhacode.backend.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 
+/**
+ * A test case by reference: the input and expected output live in the test data store under
+ * their SHA-256, only the hashes and sizes are kept here. Only test cases marked as samples
+ * are ever shown to contestants.
+ */
 @Embeddable
 public class TestCase {
-    private String inputData;
-    private String expectedOutput;
+    @Column(length = 64)
+    private String inputHash;
+    private long inputSize;
+    @Column(length = 64)
+    private String expectedHash;
+    private long expectedSize;
+    private Boolean sample;
 
     public TestCase() {
     }
 
-    public TestCase(String inputData, String expectedOutput) {
-        this.inputData = inputData;
-        this.expectedOutput = expectedOutput;
+    public TestCase(String inputHash, long inputSize, String expectedHash, long expectedSize) {
+        this.inputHash = inputHash;
+        this.inputSize = inputSize;
+        this.expectedHash = expectedHash;
+        this.expectedSize = expectedSize;
     }
 
-    public String getInputData() {
-        return inputData;
+    public String getInputHash() {
+        return inputHash;
     }
 
-    public void setInputData(String inputData) {
-        this.inputData = inputData;
+    public void setInputHash(String inputHash) {
+        this.inputHash = inputHash;
     }
 
-    public String getExpectedOutput() {
-        return expectedOutput;
+    public long getInputSize() {
+        return inputSize;
     }
 
-    public void setExpectedOutput(String expectedOutput) {
-        this.expectedOutput = expectedOutput;
+    public void setInputSize(long inputSize) {
+        this.inputSize = inputSize;
+    }
+
+    public String getExpectedHash() {
+        return expectedHash;
+    }
+
+    public void setExpectedHash(String expectedHash) {
+        this.expectedHash = expectedHash;
+    }
+
+    public long getExpectedSize() {
+        return expectedSize;
+    }
+
+    public void setExpectedSize(long expectedSize) {
+        this.expectedSize = expectedSize;
+    }
+
+    public boolean isSample() {
+        return Boolean.TRUE.equals(sample);
+    }
+
+    public void setSample(boolean sample) {
+        this.sample = sample;
     }
 }
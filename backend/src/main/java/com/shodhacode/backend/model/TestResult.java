@@ -0,0 +1,77 @@
+package com.shodhacode.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Outcome and resource usage of one test case of a judged submission. Tests that were
+ * skipped after an earlier failure have no row. Resource figures are null when the
+ * execution backend did not report them.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_test_result_submission", columnList = "submission_id, test_number"))
+public class TestResult {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "submission_id")
+    private Long submissionId;
+
+    // 1-based, as shown in verdict messages
+    @Column(name = "test_number")
+    private int testNumber;
+
+    @Enumerated(EnumType.STRING)
+    private SubmissionStatus status;
+
+    private Long wallTimeMs;
+    private Long cpuTimeMs;
+    private Long peakMemoryKb;
+    private Integer exitCode;
+
+    public TestResult() {
+    }
+
+    public TestResult(Long submissionId, int testNumber, SubmissionStatus status, Long wallTimeMs, Long cpuTimeMs,
+                      Long peakMemoryKb, Integer exitCode) {
+        this.submissionId = submissionId;
+        this.testNumber = testNumber;
+        this.status = status;
+        this.wallTimeMs = wallTimeMs;
+        this.cpuTimeMs = cpuTimeMs;
+        this.peakMemoryKb = peakMemoryKb;
+        this.exitCode = exitCode;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSubmissionId() {
+        return submissionId;
+    }
+
+    public int getTestNumber() {
+        return testNumber;
+    }
+
+    public SubmissionStatus getStatus() {
+        return status;
+    }
+
+    public Long getWallTimeMs() {
+        return wallTimeMs;
+    }
+
+    public Long getCpuTimeMs() {
+        return cpuTimeMs;
+    }
+
+    public Long getPeakMemoryKb() {
+        return peakMemoryKb;
+    }
+
+    public Integer getExitCode() {
+        return exitCode;
+    }
+}
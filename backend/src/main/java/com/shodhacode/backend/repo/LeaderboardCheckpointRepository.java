@@ -0,0 +1,7 @@
+package com.shodhacode.backend.repo;
+
+import com.shodhacode.backend.model.LeaderboardCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LeaderboardCheckpointRepository extends JpaRepository<LeaderboardCheckpoint, Long> {
+}
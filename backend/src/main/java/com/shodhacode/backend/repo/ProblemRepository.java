@@ -1,7 +1,18 @@
 package com.shodhacode.backend.repo;
 
 import com.shodhacode.backend.model.Problem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface ProblemRepository extends JpaRepository<Problem, Long> {
+
+    @EntityGraph(attributePaths = "testCases")
+    Optional<Problem> findWithTestCasesById(Long id);
+
+    @Query("select p.version from Problem p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,16 @@
+package com.shodhacode.backend.repo;
+
+import com.shodhacode.backend.model.ProblemScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ProblemScoreRepository extends JpaRepository<ProblemScore, Long> {
+
+    /**
+     * Every score row with its rejections, loaded in one query to restore the leaderboards.
+     */
+    @Query("select distinct ps from ProblemScore ps left join fetch ps.rejections")
+    List<ProblemScore> findAllWithRejections();
+}
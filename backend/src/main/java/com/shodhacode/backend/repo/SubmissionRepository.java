@@ -1,7 +1,205 @@
 package com.shodhacode.backend.repo;
 
 import com.shodhacode.backend.model.Submission;
+import com.shodhacode.backend.model.SubmissionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+
+    /**
+     * Every scored verdict in submission order, used once to backfill the problem score table.
+     */
+    @Query("select s.id as id, s.contest.id as contestId, s.username as username, s.problem.id as problemId, "
+            + "s.status as status, s.passedTests as passedTests, s.totalTests as totalTests, "
+            + "s.createdAt as createdAt from Submission s where s.contest is not null and s.problem is not null "
+            + "and s.status not in (com.shodhacode.backend.model.SubmissionStatus.PENDING, "
+            + "com.shodhacode.backend.model.SubmissionStatus.RUNNING) order by s.createdAt, s.id")
+    List<ScoredVerdict> findScoredVerdicts();
+
+    /**
+     * Scored verdicts of submissions that finished at or after {@code since}, for catching the
+     * leaderboards up with what workers judged while they were not being maintained.
+     */
+    @Query("select s.id as id, s.contest.id as contestId, s.username as username, s.problem.id as problemId, "
+            + "s.status as status, s.passedTests as passedTests, s.totalTests as totalTests, "
+            + "s.createdAt as createdAt from Submission s where s.contest is not null and s.problem is not null "
+            + "and s.finishedAt >= :since and s.status not in (com.shodhacode.backend.model.SubmissionStatus.PENDING, "
+            + "com.shodhacode.backend.model.SubmissionStatus.RUNNING) order by s.createdAt, s.id")
+    List<ScoredVerdict> findScoredVerdictsFinishedSince(@Param("since") Instant since);
+
+    /**
+     * Status of a submission without its code, for the polling and streaming read paths.
+     */
+    @Query("select s.id as id, s.status as status, s.resultMessage as resultMessage, "
+            + "s.passedTests as passedTests, s.totalTests as totalTests, s.completedTests as completedTests, "
+            + "s.createdAt as createdAt, s.finishedAt as finishedAt, s.traceId as traceId "
+            + "from Submission s where s.id = :id")
+    Optional<SubmissionSummary> findSummaryById(@Param("id") Long id);
+
+    /**
+     * A user's submissions in a contest, newest first, strictly older than the
+     * (beforeTime, beforeId) cursor. Served from idx_submission_contest_user.
+     */
+    @Query("select s.id as id, s.problem.id as problemId, s.username as username, s.language as language, "
+            + "s.status as status, s.createdAt as createdAt, s.finishedAt as finishedAt from Submission s "
+            + "where s.contest.id = :contestId and s.username = :username "
+            + "and (s.createdAt < :beforeTime or (s.createdAt = :beforeTime and s.id < :beforeId)) "
+            + "order by s.createdAt desc, s.id desc")
+    List<SubmissionListItem> findByContestAndUserBefore(@Param("contestId") Long contestId,
+                                                        @Param("username") String username,
+                                                        @Param("beforeTime") Instant beforeTime,
+                                                        @Param("beforeId") Long beforeId, Limit limit);
+
+    /**
+     * Submissions for a problem, newest first, strictly older than the (beforeTime, beforeId)
+     * cursor. Served from idx_submission_problem_created.
+     */
+    @Query("select s.id as id, s.problem.id as problemId, s.username as username, s.language as language, "
+            + "s.status as status, s.createdAt as createdAt, s.finishedAt as finishedAt from Submission s "
+            + "where s.problem.id = :problemId "
+            + "and (s.createdAt < :beforeTime or (s.createdAt = :beforeTime and s.id < :beforeId)) "
+            + "order by s.createdAt desc, s.id desc")
+    List<SubmissionListItem> findByProblemBefore(@Param("problemId") Long problemId,
+                                                 @Param("beforeTime") Instant beforeTime,
+                                                 @Param("beforeId") Long beforeId, Limit limit);
+
+    @Query("select s.id from Submission s where s.status in :statuses order by s.id")
+    List<Long> findIdsByStatusIn(@Param("statuses") Collection<SubmissionStatus> statuses);
+
+    long countByStatus(SubmissionStatus status);
+
+    /**
+     * When the longest-waiting PENDING submission was created, or null if none is waiting.
+     */
+    @Query("select s.createdAt from Submission s where s.id = (select min(p.id) from Submission p "
+            + "where p.status = com.shodhacode.backend.model.SubmissionStatus.PENDING)")
+    Instant findOldestPendingCreatedAt();
+
+    /**
+     * Submissions a worker may claim, oldest first: queued ones, and running ones whose lease
+     * has expired because their worker stopped heartbeating.
+     */
+    @Query("select s.id from Submission s where s.status = com.shodhacode.backend.model.SubmissionStatus.PENDING "
+            + "or (s.status = com.shodhacode.backend.model.SubmissionStatus.RUNNING and s.leaseExpiresAt < :now) "
+            + "order by s.id")
+    List<Long> findClaimableIds(@Param("now") Instant now, Limit limit);
+
+    /**
+     * Leases a claimable submission to {@code owner} until {@code until} and marks it RUNNING.
+     * Returns the number of rows changed, so 0 means it was not claimable (anymore), e.g.
+     * because another worker got there first.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Submission s set s.status = com.shodhacode.backend.model.SubmissionStatus.RUNNING, "
+            + "s.leaseOwner = :owner, s.leaseExpiresAt = :until, s.attempts = coalesce(s.attempts, 0) + 1, "
+            + "s.completedTests = null "
+            + "where s.id = :id and (s.status = com.shodhacode.backend.model.SubmissionStatus.PENDING "
+            + "or (s.status = com.shodhacode.backend.model.SubmissionStatus.RUNNING and s.leaseExpiresAt < :now))")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") Instant now,
+              @Param("until") Instant until);
+
+    /**
+     * Extends the leases that {@code owner} still holds on the given submissions.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Submission s set s.leaseExpiresAt = :until where s.id in :ids and s.leaseOwner = :owner "
+            + "and s.status = com.shodhacode.backend.model.SubmissionStatus.RUNNING")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("until") Instant until);
+
+    /**
+     * Stores the verdict of a leased submission and releases the lease, but only if
+     * {@code owner} still holds it. Returns 0 when the lease was lost to another worker.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Submission s set s.status = :status, s.passedTests = :passedTests, s.totalTests = :totalTests, "
+            + "s.completedTests = :completedTests, s.resultMessage = :message, s.finishedAt = :finishedAt, s.leaseOwner = null, s.leaseExpiresAt = null "
+            + "where s.id = :id and s.leaseOwner = :owner "
+            + "and s.status = com.shodhacode.backend.model.SubmissionStatus.RUNNING")
+    int complete(@Param("id") Long id, @Param("owner") String owner, @Param("status") SubmissionStatus status,
+                 @Param("passedTests") Integer passedTests, @Param("totalTests") Integer totalTests,
+                 @Param("completedTests") Integer completedTests, @Param("message") String message, @Param("finishedAt") Instant finishedAt);
+
+    /**
+     * The given submissions that have left PENDING, for following submissions that another
+     * process judges.
+     */
+    @Query("select s.id as id, s.contest.id as contestId, s.username as username, s.problem.id as problemId, "
+            + "s.status as status, s.passedTests as passedTests, s.totalTests as totalTests, "
+            + "s.completedTests as completedTests, s.resultMessage as resultMessage, s.createdAt as createdAt "
+            + "from Submission s "
+            + "where s.id in :ids and s.status <> com.shodhacode.backend.model.SubmissionStatus.PENDING order by s.id")
+    List<JudgedSubmission> findStartedByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface SubmissionSummary {
+        Long getId();
+
+        SubmissionStatus getStatus();
+
+        String getResultMessage();
+
+        Integer getPassedTests();
+
+        Integer getTotalTests();
+
+        Integer getCompletedTests();
+
+        Instant getCreatedAt();
+
+        Instant getFinishedAt();
+
+        String getTraceId();
+    }
+
+    interface SubmissionListItem {
+        Long getId();
+
+        Long getProblemId();
+
+        String getUsername();
+
+        String getLanguage();
+
+        SubmissionStatus getStatus();
+
+        Instant getCreatedAt();
+
+        Instant getFinishedAt();
+    }
+
+    interface ScoredVerdict {
+        Long getId();
+
+        Long getContestId();
+
+        String getUsername();
+
+        Long getProblemId();
+
+        SubmissionStatus getStatus();
+
+        Integer getPassedTests();
+
+        Integer getTotalTests();
+
+        Instant getCreatedAt();
+    }
+
+    interface JudgedSubmission extends ScoredVerdict {
+        Integer getCompletedTests();
+
+        String getResultMessage();
+    }
 }
@@ -0,0 +1,10 @@
+package com.shodhacode.backend.repo;
+
+import com.shodhacode.backend.model.TestResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TestResultRepository extends JpaRepository<TestResult, Long> {
+    List<TestResult> findBySubmissionIdOrderByTestNumber(Long submissionId);
+}
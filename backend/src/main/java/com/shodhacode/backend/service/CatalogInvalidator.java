@@ -0,0 +1,51 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.Contest;
+import com.shodhacode.backend.model.Problem;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener on {@link Contest} and {@link Problem} that evicts their
+ * {@link ContestCatalog} entries whenever one is stored or removed. Hibernate creates it
+ * through Spring; the catalog is looked up lazily because the listener is created while the
+ * entity manager that the catalog depends on is still being built.
+ * <p>
+ * The entry is evicted right away and again once the transaction commits, so a reader that
+ * reloaded the old row in between does not leave it cached.
+ */
+public class CatalogInvalidator {
+
+    private final ObjectProvider<ContestCatalog> catalog;
+
+    public CatalogInvalidator(ObjectProvider<ContestCatalog> catalog) {
+        this.catalog = catalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        Runnable evict;
+        if (entity instanceof Contest contest) {
+            evict = () -> catalog.ifAvailable(c -> c.evictContest(contest.getId()));
+        } else if (entity instanceof Problem problem) {
+            evict = () -> catalog.ifAvailable(c -> c.evictProblem(problem.getId()));
+        } else {
+            return;
+        }
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
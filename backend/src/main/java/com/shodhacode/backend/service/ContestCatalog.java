@@ -0,0 +1,154 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.Contest;
+import com.shodhacode.backend.model.Problem;
+import com.shodhacode.backend.repo.ContestRepository;
+import com.shodhacode.backend.repo.ProblemRepository;
+import com.shodhacode.backend.web.dto.ContestView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of contests and problems, which hardly change while a contest runs.
+ * <p>
+ * A contest is cached as the {@link ContestView} clients get, built once and stamped with
+ * an ETag derived from the contest's and its problems' {@code @Version}s, so unchanged pages
+ * are answered with 304. A problem is cached for the judge as a detached entity with its
+ * test cases loaded into an unmodifiable list; nothing writes to it.
+ * <p>
+ * Both maps are LRU-bounded. Any change to a contest or problem stored through JPA evicts
+ * the affected entries (see {@link CatalogInvalidator}). A load that overlaps an eviction
+ * is returned but not cached, so a stale snapshot never outlives the edit. That eviction
+ * only happens in the process that makes the edit, so the judge asks for
+ * {@link #currentProblem}, which checks the cached problem's version against the database
+ * and reloads it when another node changed it.
+ */
+@Component
+public class ContestCatalog {
+
+    /**
+     * A contest as served to clients, with the ETag of exactly this content.
+     */
+    public record ContestSnapshot(ContestView view, String etag) {
+    }
+
+    private final ContestRepository contestRepository;
+    private final ProblemRepository problemRepository;
+    private final TestDataStore testDataStore;
+    private final TransactionTemplate readOnly;
+    private final Map<Long, ContestSnapshot> contests;
+    private final Map<Long, Problem> problems;
+    // bumped by every eviction; loads that started before it are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public ContestCatalog(ContestRepository contestRepository, ProblemRepository problemRepository,
+                          TestDataStore testDataStore, TransactionTemplate transactionTemplate,
+                          @Value("${judge.catalog.max-contests:256}") int maxContests,
+                          @Value("${judge.catalog.max-problems:1024}") int maxProblems) {
+        this.contestRepository = contestRepository;
+        this.problemRepository = problemRepository;
+        this.testDataStore = testDataStore;
+        this.readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        this.contests = lru(maxContests);
+        this.problems = lru(maxProblems);
+    }
+
+    public Optional<ContestSnapshot> contest(Long contestId) {
+        return Optional.ofNullable(readThrough(contests, contestId, () -> readOnly.execute(status ->
+                contestRepository.findById(contestId).map(this::snapshot).orElse(null))));
+    }
+
+    /**
+     * The problem with its test cases, for judging and for checking submissions against.
+     */
+    public Optional<Problem> problem(Long problemId) {
+        return Optional.ofNullable(readThrough(problems, problemId, () ->
+                problemRepository.findWithTestCasesById(problemId).map(ContestCatalog::detach).orElse(null)));
+    }
+
+    /**
+     * Like {@link #problem}, but never older than the problem in the database: one version
+     * lookup per call, and a reload when it does not match the cached copy.
+     */
+    public Optional<Problem> currentProblem(Long problemId) {
+        Optional<Long> version = problemRepository.findVersionById(problemId);
+        if (version.isEmpty()) {
+            evictProblem(problemId);
+            return Optional.empty();
+        }
+        Optional<Problem> cached = problem(problemId);
+        if (cached.isEmpty() || version.get().equals(cached.get().getVersion())) return cached;
+        evictProblem(problemId);
+        return problem(problemId);
+    }
+
+    /**
+     * Evicts a contest; called after it was edited.
+     */
+    public void evictContest(Long contestId) {
+        generation.incrementAndGet();
+        synchronized (contests) {
+            contests.remove(contestId);
+        }
+    }
+
+    /**
+     * Evicts a problem and every contest page, since any of them may list it.
+     */
+    public void evictProblem(Long problemId) {
+        generation.incrementAndGet();
+        synchronized (problems) {
+            problems.remove(problemId);
+        }
+        synchronized (contests) {
+            contests.clear();
+        }
+    }
+
+    private <T> T readThrough(Map<Long, T> cache, Long id, Supplier<T> loader) {
+        synchronized (cache) {
+            T cached = cache.get(id);
+            if (cached != null) return cached;
+        }
+        long loadedAt = generation.get();
+        T loaded = loader.get();
+        if (loaded == null) return null;
+        synchronized (cache) {
+            if (generation.get() == loadedAt) cache.put(id, loaded);
+        }
+        return loaded;
+    }
+
+    private ContestSnapshot snapshot(Contest contest) {
+        // versions only grow, so the sum changes whenever any problem does
+        long problemVersions = 0;
+        for (Problem problem : contest.getProblems()) {
+            problemVersions += problem.getVersion() == null ? 0 : problem.getVersion();
+        }
+        String etag = "\"" + contest.getId() + "-" + contest.getVersion() + "-" + problemVersions + "\"";
+        return new ContestSnapshot(new ContestView(contest, testDataStore), etag);
+    }
+
+    private static Problem detach(Problem problem) {
+        problem.setTestCases(List.copyOf(problem.getTestCases()));
+        return problem;
+    }
+
+    private static <T> Map<Long, T> lru(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, T> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+}
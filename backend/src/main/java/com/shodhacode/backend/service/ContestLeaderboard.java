@@ -0,0 +1,235 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.ProblemScore;
+import com.shodhacode.backend.model.Rejection;
+import com.shodhacode.backend.model.ScoringMode;
+import com.shodhacode.backend.model.SubmissionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Standings of a single contest, kept in an indexed skip list so that reading a page seeks
+ * to its offset in O(log n) and then only walks that page, however deep it is. Writers are
+ * serialized on the board; readers share a read lock that writers only hold while moving
+ * one user. Users whose standing changed are remembered until the next {@link #drainChanged()}.
+ * <p>
+ * Each verdict only updates the user's state on that one problem and then recomputes that
+ * user's standing from their per-problem states, so the cost of a verdict does not grow
+ * with the number of contestants or submissions. Both the ICPC and the IOI state are kept,
+ * so that a contest whose scoring settings change is re-ranked without rescanning anything.
+ */
+public class ContestLeaderboard {
+
+    // higher score first, then lower penalty, then by name so the order is total
+    private static final Comparator<Standing> ORDER = Comparator
+            .comparingLong(Standing::score).reversed()
+            .thenComparingLong(Standing::penalty)
+            .thenComparing(Standing::username);
+
+    private static final int IOI_PROBLEM_POINTS = 100;
+
+    private final Long contestId;
+    // written under the board's lock; read without it to tell whether they changed
+    private volatile ScoringMode mode;
+    private volatile Instant startTime;
+    private volatile int penaltyMinutes;
+    private final Map<String, Map<Long, ProblemScore>> scores = new HashMap<>();
+    private final Map<String, Standing> byUser = new ConcurrentHashMap<>();
+    private final IndexedSkipList<Standing> ranking = new IndexedSkipList<>(ORDER);
+    private final ReadWriteLock rankingLock = new ReentrantReadWriteLock();
+    // numbers the deltas; a page carries the number of the last delta it already reflects
+    private long sequence;
+    private Set<String> changed = new HashSet<>();
+
+    public ContestLeaderboard(Long contestId, ScoringMode mode, Instant startTime, int penaltyMinutes) {
+        this.contestId = contestId;
+        this.mode = mode;
+        this.startTime = startTime;
+        this.penaltyMinutes = penaltyMinutes;
+    }
+
+    public ScoringMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Takes on the contest's current scoring settings, re-ranking every user if they changed.
+     */
+    public void configure(ScoringMode mode, Instant startTime, int penaltyMinutes) {
+        if (mode == this.mode && Objects.equals(startTime, this.startTime) && penaltyMinutes == this.penaltyMinutes)
+            return;
+        synchronized (this) {
+            this.mode = mode;
+            this.startTime = startTime;
+            this.penaltyMinutes = penaltyMinutes;
+            for (String username : scores.keySet()) {
+                restand(username);
+            }
+        }
+    }
+
+    /**
+     * Restores a persisted problem state.
+     */
+    public synchronized void load(ProblemScore score) {
+        scores.computeIfAbsent(score.getUsername(), u -> new HashMap<>()).put(score.getProblemId(), score);
+        restand(score.getUsername());
+    }
+
+    /**
+     * Applies the verdict of one submission and returns the problem state if it changed (so
+     * that it can be persisted), or null if the verdict did not affect scoring.
+     */
+    public synchronized ProblemScore apply(Long submissionId, String username, Long problemId,
+                                           SubmissionStatus status, int passedTests, int totalTests,
+                                           Instant submittedAt) {
+        ProblemScore score = scores.computeIfAbsent(username, u -> new HashMap<>())
+                .computeIfAbsent(problemId, p -> new ProblemScore(contestId, username, problemId));
+        // both, so that the other mode's state is there if the contest switches
+        boolean updated = applyIoi(score, status, passedTests, totalTests)
+                | applyIcpc(score, submissionId, status, submittedAt);
+        if (!updated) return null;
+        restand(username);
+        return score;
+    }
+
+    /**
+     * Verdicts arrive in the order their judging finishes, which with parallel workers need not
+     * be the order of submission, so everything is decided by submission time: the earliest
+     * accepted submission solves the problem, and only rejections submitted before it count.
+     * Applying the same verdict again changes nothing, so verdicts can safely be replayed.
+     */
+    private static boolean applyIcpc(ProblemScore score, Long submissionId, SubmissionStatus status,
+                                     Instant submittedAt) {
+        if (score.isSolved() && !submittedAt.isBefore(score.getSolvedAt())) return false;
+        if (status == SubmissionStatus.ACCEPTED) {
+            score.setSolvedAt(submittedAt);
+            score.getRejections().removeIf(rejected -> !rejected.getSubmittedAt().isBefore(submittedAt));
+            return true;
+        }
+        // compilation errors and judge failures are not held against the contestant
+        if (status == SubmissionStatus.COMPILATION_ERROR || status == SubmissionStatus.ERROR) return false;
+        // by id: two rejected submissions can share a timestamp, and each one counts; rows
+        // stored before ids were recorded only have the time to go by
+        for (Rejection rejected : score.getRejections()) {
+            if (rejected.getSubmissionId() == null ? rejected.getSubmittedAt().equals(submittedAt)
+                    : rejected.getSubmissionId().equals(submissionId)) return false;
+        }
+        score.getRejections().add(new Rejection(submissionId, submittedAt));
+        return true;
+    }
+
+    private static boolean applyIoi(ProblemScore score, SubmissionStatus status, int passedTests, int totalTests) {
+        int points;
+        if (status == SubmissionStatus.ACCEPTED) {
+            points = IOI_PROBLEM_POINTS;
+        } else if (totalTests > 0) {
+            points = IOI_PROBLEM_POINTS * passedTests / totalTests;
+        } else {
+            return false;
+        }
+        if (points <= score.getBestPoints()) return false;
+        score.setBestPoints(points);
+        return true;
+    }
+
+    private void restand(String username) {
+        long total = 0;
+        long penalty = 0;
+        for (ProblemScore score : scores.get(username).values()) {
+            if (mode == ScoringMode.IOI) {
+                total += score.getBestPoints();
+            } else if (score.isSolved()) {
+                total++;
+                long minutes = startTime == null ? 0
+                        : Math.max(0, Duration.between(startTime, score.getSolvedAt()).toMinutes());
+                penalty += minutes + (long) score.getRejectedAttempts() * penaltyMinutes;
+            }
+        }
+        Standing updated = new Standing(username, total, penalty);
+        if (updated.equals(byUser.get(username))) return;
+        rankingLock.writeLock().lock();
+        try {
+            Standing previous = byUser.put(username, updated);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            ranking.add(updated);
+        } finally {
+            rankingLock.writeLock().unlock();
+        }
+        changed.add(username);
+    }
+
+    /**
+     * Returns the users changed since the previous call, with their current rank, in rank
+     * order, or null if nobody changed. Only their own positions are looked up, so this
+     * costs O(changed * log n).
+     */
+    public LeaderboardDelta drainChanged() {
+        Set<String> drained;
+        synchronized (this) {
+            if (changed.isEmpty()) return null;
+            drained = changed;
+            changed = new HashSet<>();
+        }
+        List<RankedStanding> result = new ArrayList<>(drained.size());
+        long number;
+        // exclusive, so that a page is read either wholly before or wholly after this delta
+        rankingLock.writeLock().lock();
+        try {
+            number = ++sequence;
+            for (String username : drained) {
+                Standing standing = byUser.get(username);
+                int index = ranking.indexOf(standing);
+                result.add(new RankedStanding(index + 1, username, standing.score(), standing.penalty()));
+            }
+        } finally {
+            rankingLock.writeLock().unlock();
+        }
+        result.sort(Comparator.comparingInt(RankedStanding::rank));
+        return new LeaderboardDelta(contestId, number, result);
+    }
+
+    public Page page(int offset, int limit) {
+        rankingLock.readLock().lock();
+        try {
+            return new Page(sequence, ranking.range(offset, limit));
+        } finally {
+            rankingLock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return byUser.size();
+    }
+
+    /**
+     * {@code score} is the solved count under ICPC and the points under IOI;
+     * {@code penalty} is always 0 under IOI.
+     */
+    public record Standing(String username, long score, long penalty) {
+    }
+
+    public record RankedStanding(int rank, String username, long score, long penalty) {
+    }
+
+    /**
+     * A page of standings and the sequence number of the last delta it includes; clients
+     * drop deltas numbered at or below it.
+     */
+    public record Page(long sequence, List<Standing> standings) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.shodhacode.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A sorted set that also knows positions: a skip list whose links record how many elements
+ * they pass, so that both the rank of an element and the elements from a given rank on are
+ * found in O(log n) instead of by walking from the head. Not thread-safe.
+ */
+final class IndexedSkipList<T> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node<T> {
+        final T value;
+        final Node<T>[] next;
+        // how far next[i] is from this node, in elements; meaningless while next[i] is null
+        final int[] width;
+
+        @SuppressWarnings("unchecked")
+        Node(T value, int levels) {
+            this.value = value;
+            this.next = (Node<T>[]) new Node[levels];
+            this.width = new int[levels];
+        }
+    }
+
+    private final Comparator<? super T> order;
+    private final Node<T> head = new Node<>(null, MAX_LEVEL);
+    private int levels = 1;
+    private int size;
+
+    IndexedSkipList(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds the element unless an equal one is present; returns whether it was added.
+     */
+    boolean add(T value) {
+        @SuppressWarnings("unchecked")
+        Node<T>[] before = (Node<T>[]) new Node[MAX_LEVEL];
+        int[] positions = new int[MAX_LEVEL];
+        Node<T> x = head;
+        int position = 0;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && order.compare(x.next[i].value, value) < 0) {
+                position += x.width[i];
+                x = x.next[i];
+            }
+            before[i] = x;
+            positions[i] = position;
+        }
+        if (x.next[0] != null && order.compare(x.next[0].value, value) == 0) return false;
+
+        int height = randomHeight();
+        for (int i = levels; i < height; i++) {
+            before[i] = head;
+            positions[i] = 0;
+        }
+        levels = Math.max(levels, height);
+        Node<T> node = new Node<>(value, height);
+        int at = positions[0] + 1;
+        for (int i = 0; i < height; i++) {
+            node.next[i] = before[i].next[i];
+            if (node.next[i] != null) {
+                // the old successor moves up by one
+                node.width[i] = positions[i] + before[i].width[i] + 1 - at;
+            }
+            before[i].next[i] = node;
+            before[i].width[i] = at - positions[i];
+        }
+        for (int i = height; i < levels; i++) {
+            if (before[i].next[i] != null) before[i].width[i]++;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the element equal to the given one; returns whether there was one.
+     */
+    boolean remove(T value) {
+        @SuppressWarnings("unchecked")
+        Node<T>[] before = (Node<T>[]) new Node[MAX_LEVEL];
+        Node<T> x = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && order.compare(x.next[i].value, value) < 0) {
+                x = x.next[i];
+            }
+            before[i] = x;
+        }
+        Node<T> node = x.next[0];
+        if (node == null || order.compare(node.value, value) != 0) return false;
+
+        for (int i = 0; i < levels; i++) {
+            if (before[i].next[i] == node) {
+                before[i].width[i] += node.width[i] - 1;
+                before[i].next[i] = node.next[i];
+            } else if (before[i].next[i] != null) {
+                before[i].width[i]--;
+            }
+        }
+        while (levels > 1 && head.next[levels - 1] == null) {
+            levels--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * The 0-based position of the element equal to the given one, or -1 if there is none.
+     */
+    int indexOf(T value) {
+        Node<T> x = head;
+        int position = 0;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && order.compare(x.next[i].value, value) <= 0) {
+                position += x.width[i];
+                x = x.next[i];
+            }
+        }
+        return x != head && order.compare(x.value, value) == 0 ? position - 1 : -1;
+    }
+
+    /**
+     * Up to {@code limit} elements in order, starting at the 0-based position {@code offset}.
+     */
+    List<T> range(int offset, int limit) {
+        List<T> range = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+        if (offset >= size || limit <= 0) return range;
+        Node<T> x = head;
+        int position = 0;
+        int target = offset + 1;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && position + x.width[i] <= target) {
+                position += x.width[i];
+                x = x.next[i];
+            }
+        }
+        for (; x != null && range.size() < limit; x = x.next[0]) {
+            range.add(x.value);
+        }
+        return range;
+    }
+
+    private static int randomHeight() {
+        int height = 1;
+        while (height < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0) {
+            height++;
+        }
+        return height;
+    }
+}
@@ -0,0 +1,65 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.Problem;
+import com.shodhacode.backend.service.execution.ExecutionLimits;
+import com.shodhacode.backend.service.execution.Language;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resource limits for running a submission: the problem's own time and memory limits, or the
+ * judge defaults when it has none, scaled by per-language multipliers so that slower
+ * runtimes get a fair budget (for example {@code judge.limits.time-multipliers=python:3}).
+ * <p>
+ * The wall-clock limit follows from the CPU limit rather than being a fixed number, so a
+ * stuck run frees its worker shortly after its CPU budget would have run out.
+ */
+@Component
+public class JudgeLimits {
+
+    // room for I/O waits, process start-up and scheduling on top of the CPU budget
+    private static final int WALL_TIME_FACTOR = 2;
+    private static final long WALL_TIME_SLACK_MS = 1000;
+
+    private final long defaultTimeMs;
+    private final long defaultMemoryMb;
+    private final Map<Language, Double> timeMultipliers;
+    private final Map<Language, Double> memoryMultipliers;
+
+    public JudgeLimits(@Value("${judge.limits.cpu-time-ms:2000}") long defaultTimeMs,
+                       @Value("${judge.limits.memory-mb:256}") long defaultMemoryMb,
+                       @Value("${judge.limits.time-multipliers:}") String timeMultipliers,
+                       @Value("${judge.limits.memory-multipliers:}") String memoryMultipliers) {
+        this.defaultTimeMs = defaultTimeMs;
+        this.defaultMemoryMb = defaultMemoryMb;
+        this.timeMultipliers = parse(timeMultipliers);
+        this.memoryMultipliers = parse(memoryMultipliers);
+    }
+
+    public ExecutionLimits forRun(Problem problem, Language language) {
+        long timeMs = problem.getTimeLimitMs() != null ? problem.getTimeLimitMs() : defaultTimeMs;
+        long memoryMb = problem.getMemoryLimitMb() != null ? problem.getMemoryLimitMb() : defaultMemoryMb;
+        long cpuMs = Math.round(timeMs * timeMultipliers.getOrDefault(language, 1.0));
+        long memoryKb = Math.round(memoryMb * 1024 * memoryMultipliers.getOrDefault(language, 1.0));
+        return new ExecutionLimits(cpuMs, cpuMs * WALL_TIME_FACTOR + WALL_TIME_SLACK_MS, memoryKb);
+    }
+
+    // "python:3,java:2" -> {PYTHON=3.0, JAVA=2.0}
+    private static Map<Language, Double> parse(String spec) {
+        Map<Language, Double> multipliers = new EnumMap<>(Language.class);
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.split(":");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Expected language:multiplier, got '" + entry.trim() + "'");
+            double multiplier = Double.parseDouble(parts[1].trim());
+            if (multiplier <= 0)
+                throw new IllegalArgumentException("Multiplier must be positive: '" + entry.trim() + "'");
+            multipliers.put(Language.valueOf(parts[0].trim().toUpperCase()), multiplier);
+        }
+        return multipliers;
+    }
+}
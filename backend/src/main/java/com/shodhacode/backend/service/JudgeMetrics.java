@@ -0,0 +1,112 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.SubmissionStatus;
+import com.shodhacode.backend.repo.SubmissionRepository;
+import com.shodhacode.backend.service.execution.Language;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the judge pipeline, scraped from {@code /actuator/prometheus}.
+ * <ul>
+ *     <li>{@code judge.stage.duration}, by stage and language. {@code queue} is the time a
+ *     submission spent PENDING and {@code judge} the time it spent RUNNING. The others are
+ *     parts of {@code judge}: {@code wait} for an execution permit, {@code compile}, {@code run}
+ *     and {@code compare} per test, and {@code persist} for the verdict write.</li>
+ *     <li>{@code judge.verdicts}, by language and status. Not by problem, whose ids grow without
+ *     bound; per-problem counts come from the submission table.</li>
+ *     <li>{@code judge.execution.errors}, by language and exception, for runs the execution
+ *     backend failed rather than the program.</li>
+ *     <li>{@code judge.queue.depth} in this process, {@code judge.submissions.pending} and
+ *     {@code judge.queue.oldest.age} across the database, and {@code judge.in.flight}.</li>
+ * </ul>
+ * Timers publish histogram buckets, so percentiles can be aggregated over nodes.
+ */
+@Component
+public class JudgeMetrics {
+
+    public enum Stage {
+        QUEUE, JUDGE, WAIT, COMPILE, RUN, COMPARE, PERSIST;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public JudgeMetrics(MeterRegistry meterRegistry, JudgeQueue judgeQueue,
+                        SubmissionRepository submissionRepository) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("judge.queue.depth", judgeQueue, JudgeQueue::depth)
+                .description("Submissions queued for the judge workers of this process")
+                .register(meterRegistry);
+        // the database gauges cost a query per scrape, on the status index
+        Gauge.builder("judge.submissions.pending", submissionRepository,
+                        repo -> repo.countByStatus(SubmissionStatus.PENDING))
+                .description("Submissions waiting for any judge worker")
+                .register(meterRegistry);
+        Gauge.builder("judge.queue.oldest.age", submissionRepository, JudgeMetrics::oldestPendingAge)
+                .description("How long the longest-waiting PENDING submission has waited")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a count of work in progress, e.g. submissions being judged or executions running.
+     */
+    public void inFlight(String kind, Supplier<Number> count) {
+        Gauge.builder("judge.in.flight", count)
+                .description("Judge work in progress")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    public void record(Stage stage, String language, long nanos) {
+        Timer.builder("judge.stage.duration")
+                .description("Time spent per stage of judging a submission")
+                .tag("stage", stage.tag)
+                .tag("language", tag(language))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(Stage stage, String language, Instant since, Instant until) {
+        record(stage, language, Math.max(0, Duration.between(since, until).toNanos()));
+    }
+
+    public void verdict(String language, SubmissionStatus status) {
+        Counter.builder("judge.verdicts")
+                .description("Verdicts stored, including cached ones")
+                .tag("language", tag(language))
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void executionError(String language, Throwable error) {
+        Counter.builder("judge.execution.errors")
+                .description("Runs that failed in the execution backend rather than in the program")
+                .tag("language", tag(language))
+                .tag("exception", error.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // languages come from requests, so they are mapped to the supported set to bound the tags
+    private static String tag(String language) {
+        return Language.fromName(language).name().toLowerCase();
+    }
+
+    private static double oldestPendingAge(SubmissionRepository submissionRepository) {
+        Instant oldest = submissionRepository.findOldestPendingCreatedAt();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis() / 1000.0);
+    }
+}
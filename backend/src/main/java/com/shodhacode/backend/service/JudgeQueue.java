@@ -0,0 +1,77 @@
+package com.shodhacode.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded hand-off of submission ids from the API to the judge workers.
+ * <p>
+ * The queue itself only holds ids. The submissions table is the durable record: every
+ * PENDING row is queued work, and rows this process did not enqueue itself (left by a
+ * previous run, or accepted by an API-only node) are fed in by the judge's database poller.
+ * Capacity is claimed with
+ * {@link #tryReserve()} before the submission row is inserted, so a rejected request never
+ * leaves a row behind.
+ */
+@Component
+public class JudgeQueue {
+
+    private final int capacity;
+    private final BlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+    // queued ids plus reservations whose submission is still being inserted
+    private final AtomicInteger occupied = new AtomicInteger();
+
+    public JudgeQueue(@Value("${judge.queue.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    public boolean tryReserve() {
+        int current;
+        do {
+            current = occupied.get();
+            if (current >= capacity) return false;
+        } while (!occupied.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void cancelReservation() {
+        occupied.decrementAndGet();
+    }
+
+    /**
+     * Enqueues a submission for which a slot was reserved and returns the number of
+     * submissions waiting at that moment, this one included. An idle worker may already
+     * have taken it, in which case the result is 0.
+     */
+    public int enqueue(Long submissionId) {
+        queue.add(submissionId);
+        return queue.size();
+    }
+
+    /**
+     * Offers a submission found in the database. That work was admitted already, so it is
+     * accepted even when that overfills the queue.
+     */
+    public void recover(Long submissionId) {
+        occupied.incrementAndGet();
+        queue.add(submissionId);
+    }
+
+    public Long take() throws InterruptedException {
+        Long id = queue.take();
+        occupied.decrementAndGet();
+        return id;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
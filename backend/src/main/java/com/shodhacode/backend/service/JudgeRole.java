@@ -0,0 +1,30 @@
+package com.shodhacode.backend.service;
+
+/**
+ * What a backend process does, set with {@code judge.role}. An {@code api} node accepts
+ * submissions and serves clients, {@code worker} nodes claim queued submissions from the
+ * shared database and judge them, and {@code all} (the default) does both in one process.
+ */
+public enum JudgeRole {
+    API,
+    WORKER,
+    ALL;
+
+    public static JudgeRole fromName(String name) {
+        if (name == null || name.isBlank()) return ALL;
+        return switch (name.trim().toLowerCase()) {
+            case "api" -> API;
+            case "worker" -> WORKER;
+            case "all" -> ALL;
+            default -> throw new IllegalArgumentException("Unknown judge.role: " + name);
+        };
+    }
+
+    public boolean acceptsSubmissions() {
+        return this != WORKER;
+    }
+
+    public boolean judges() {
+        return this != API;
+    }
+}
@@ -2,191 +2,402 @@ package com.shodhacode.backend.service;
 
 import com.shodhacode.backend.model.*;
 import com.shodhacode.backend.repo.SubmissionRepository;
+import com.shodhacode.backend.service.checker.OutputCheckers;
+import com.shodhacode.backend.service.execution.CompiledProgram;
+import com.shodhacode.backend.service.execution.ExecutionLimits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
-
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts submissions and judges them, as configured by {@code judge.role}. Submissions are
+ * queued as PENDING rows; judge workers lease them through {@link SubmissionLeases}, so
+ * worker processes pointed at the same database share the queue. A node that also accepts
+ * submissions hands them to its own workers directly, and every judging node polls the
+ * database for claimable work: rows no process has picked up, and rows whose worker died.
+ */
 @Service
 public class JudgeService {
 
+    private static final Logger log = LoggerFactory.getLogger(JudgeService.class);
+
+    // matches the resultMessage column length
+    private static final int MAX_MESSAGE_LENGTH = 2000;
+
     private final SubmissionRepository submissionRepository;
+    private final SubmissionWriteBuffer writeBuffer;
+    private final LeaderboardService leaderboardService;
+    private final TestCaseRunner testCaseRunner;
+    private final JudgeQueue judgeQueue;
+    private final SubmissionEventService submissionEventService;
+    private final VerdictCache verdictCache;
+    private final OutputCheckers outputCheckers;
+    private final JudgeLimits judgeLimits;
+    private final ContestCatalog contestCatalog;
+    private final SubmissionLeases leases;
+    private final SubmissionTracker tracker;
+    private final JudgeMetrics metrics;
+    private final JudgeRole role;
+    private final int workers;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    // workers busy with a submission, so the poller never claims more than the idle ones can take
+    private final AtomicInteger busy = new AtomicInteger();
     private ExecutorService executor;
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    // Judge0 API URL (self-hosted or public CE)
-    private static final String JUDGE0_BASE_URL = "https://ce.judge0.com";
- // replace if self-hosted
-    private final String RAPIDAPI_KEY = ""; // optional if using RapidAPI
+    private ScheduledExecutorService poller;
 
     @Autowired
-    public JudgeService(SubmissionRepository submissionRepository) {
+    public JudgeService(SubmissionRepository submissionRepository, SubmissionWriteBuffer writeBuffer,
+                        LeaderboardService leaderboardService,
+                        TestCaseRunner testCaseRunner, JudgeQueue judgeQueue,
+                        SubmissionEventService submissionEventService, VerdictCache verdictCache,
+                        OutputCheckers outputCheckers, JudgeLimits judgeLimits, ContestCatalog contestCatalog,
+                        SubmissionLeases leases, SubmissionTracker tracker, JudgeMetrics metrics,
+                        @Value("${judge.role:all}") String role,
+                        @Value("${judge.workers:256}") int workers,
+                        @Value("${judge.worker.poll-interval-ms:500}") long pollIntervalMs,
+                        @Value("${judge.lease.max-attempts:3}") int maxAttempts) {
         this.submissionRepository = submissionRepository;
+        this.writeBuffer = writeBuffer;
+        this.leaderboardService = leaderboardService;
+        this.testCaseRunner = testCaseRunner;
+        this.judgeQueue = judgeQueue;
+        this.submissionEventService = submissionEventService;
+        this.verdictCache = verdictCache;
+        this.outputCheckers = outputCheckers;
+        this.workers = workers;
+        this.judgeLimits = judgeLimits;
+        this.contestCatalog = contestCatalog;
+        this.leases = leases;
+        this.tracker = tracker;
+        this.metrics = metrics;
+        this.role = JudgeRole.fromName(role);
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxAttempts = maxAttempts;
+        metrics.inFlight("submissions", busy::get);
     }
 
     @PostConstruct
     public void init() {
-        this.executor = Executors.newFixedThreadPool(4);
+        if (!role.judges()) return;
+        // workers mostly wait on the execution backend, so they are cheap virtual threads
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("judge-worker-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::workLoop);
+        }
     }
 
-    public Submission submitForJudging(Submission submission) {
-        submission.setStatus(SubmissionStatus.PENDING);
-        Submission saved = submissionRepository.save(submission);
-        Long id = saved.getId();
-        executor.submit(() -> processSubmission(id));
-        return saved;
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) poller.shutdownNow();
+        if (executor != null) executor.shutdownNow();
     }
 
-    private void processSubmission(Long submissionId) {
-        Optional<Submission> maybe = submissionRepository.findById(submissionId);
-        if (maybe.isEmpty()) return;
-
-        Submission submission = maybe.get();
-        submission.setStatus(SubmissionStatus.RUNNING);
-        submissionRepository.save(submission);
+    /**
+     * Starts polling the database for claimable work once the application is up. This also
+     * picks up what a previous run left behind: PENDING rows right away, and RUNNING rows
+     * once their lease has expired.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void startPolling() {
+        if (!role.judges()) return;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "judge-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::pollForWork, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Judging as {} ({} role)", leases.getOwner(), role.name().toLowerCase());
+    }
 
-        Problem problem = submission.getProblem();
-        if (problem == null) {
-            submission.setStatus(SubmissionStatus.ERROR);
-            submission.setResultMessage("Problem not found");
-            submission.setFinishedAt(Instant.now());
-            submissionRepository.save(submission);
-            return;
+    /**
+     * Stores a new submission and queues it for judging. Returns the queue position, or
+     * empty when the queue is full, in which case nothing has been stored. Code that has
+     * already been judged gets its cached verdict right away and position 0.
+     */
+    public OptionalInt submitForJudging(Submission submission) {
+        if (submission.getProblem() != null && submission.getContest() != null) {
+            boolean allTests = leaderboardService.needsAllTests(submission.getContest().getId());
+            VerdictCache.Verdict cached = verdictCache.get(VerdictCache.keyOf(submission, allTests));
+            if (cached != null) {
+                finish(submission, cached);
+                return OptionalInt.of(0);
+            }
         }
+        if (!role.judges()) return queueForWorkers(submission);
+        if (!judgeQueue.tryReserve()) return OptionalInt.empty();
+        Submission saved;
+        try {
+            submission.setStatus(SubmissionStatus.PENDING);
+            saved = submissionRepository.save(submission);
+        } catch (RuntimeException e) {
+            judgeQueue.cancelReservation();
+            throw e;
+        }
+        tracker.track(saved.getId());
+        return OptionalInt.of(judgeQueue.enqueue(saved.getId()));
+    }
 
-        List<TestCase> testCases = problem.getTestCases();
-        boolean allPassed = true;
-        StringBuilder resultLog = new StringBuilder();
+    /**
+     * API-only node: the submission just waits as a PENDING row for a worker process. The
+     * PENDING count stands in for the queue depth; concurrent requests may overshoot the
+     * capacity slightly, which is fine for back-pressure.
+     */
+    private OptionalInt queueForWorkers(Submission submission) {
+        long waiting = submissionRepository.countByStatus(SubmissionStatus.PENDING);
+        if (waiting >= judgeQueue.getCapacity()) return OptionalInt.empty();
+        submission.setStatus(SubmissionStatus.PENDING);
+        Submission saved = submissionRepository.save(submission);
+        tracker.track(saved.getId());
+        return OptionalInt.of((int) waiting + 1);
+    }
 
-        for (int i = 0; i < testCases.size(); i++) {
-            TestCase tc = testCases.get(i);
+    /**
+     * Feeds claimable rows to idle workers. Only runs while the local queue is empty, so an id
+     * is rarely queued twice; if it is, the second claim simply fails.
+     */
+    private void pollForWork() {
+        try {
+            int idle = workers - busy.get();
+            if (idle <= 0 || judgeQueue.depth() > 0) return;
+            leases.claimable(idle).forEach(judgeQueue::recover);
+        } catch (RuntimeException e) {
+            // keep the poller scheduled; the database may be briefly unavailable
+            log.warn("Polling for claimable submissions failed", e);
+        }
+    }
 
+    private void workLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Long id;
             try {
-            	int languageId = mapLanguageToJudge0Id(submission.getLanguage());
-            	String output = runOnJudge0(submission.getCode(), submission.getLanguage(), tc.getInputData());
-
-
-
-                resultLog.append("TC #").append(i + 1).append(" output:\n").append(output).append("\n");
-
-                if (!normalize(output).equals(normalize(tc.getExpectedOutput()))) {
-                    allPassed = false;
-                    submission.setStatus(SubmissionStatus.WRONG_ANSWER);
-                    submission.setResultMessage("Wrong answer on testcase " + (i + 1) + "\n" + resultLog.toString());
-                    submission.setFinishedAt(Instant.now());
-                    submissionRepository.save(submission);
-                    return;
-                }
-            } catch (TimeoutException e) {
-                submission.setStatus(SubmissionStatus.TIMED_OUT);
-                submission.setResultMessage("Timed out during execution");
-                submission.setFinishedAt(Instant.now());
-                submissionRepository.save(submission);
+                id = judgeQueue.take();
+            } catch (InterruptedException e) {
                 return;
-            } catch (Exception e) {
-                submission.setStatus(SubmissionStatus.ERROR);
-                submission.setResultMessage("Execution error: " + e.getMessage());
-                submission.setFinishedAt(Instant.now());
-                submissionRepository.save(submission);
+            }
+            busy.incrementAndGet();
+            try {
+                processSubmission(id);
+            } catch (InterruptedException e) {
                 return;
+            } catch (Exception e) {
+                log.error("Judging submission {} failed", id, e);
+            } finally {
+                busy.decrementAndGet();
             }
         }
+    }
 
-        if (allPassed) {
-            submission.setStatus(SubmissionStatus.ACCEPTED);
-            submission.setResultMessage("All tests passed\n" + resultLog.toString());
-            submission.setFinishedAt(Instant.now());
-            submissionRepository.save(submission);
+    private void processSubmission(Long submissionId) throws InterruptedException {
+        // the lease keeps a submission from being judged twice, by this process or another one
+        if (!leases.claim(submissionId)) return;
+        // every way out stops the heartbeat; a submission left unjudged is claimed again once
+        // its lease runs out
+        try {
+            long claimed = System.nanoTime();
+            Instant claimedAt = Instant.now();
+            Optional<Submission> maybe = submissionRepository.findById(submissionId);
+            if (maybe.isEmpty()) return;
+
+            Submission submission = maybe.get();
+            // logs of the judging carry the trace id of the request that created the submission
+            if (submission.getTraceId() != null) MDC.put(TraceIds.MDC_KEY, submission.getTraceId());
+            try {
+                // a retried submission already had its time in the queue recorded
+                if (submission.getAttempts() == null || submission.getAttempts() <= 1) {
+                    metrics.record(JudgeMetrics.Stage.QUEUE, submission.getLanguage(), submission.getCreatedAt(),
+                            claimedAt);
+                }
+                judgeClaimed(submission);
+            } finally {
+                metrics.record(JudgeMetrics.Stage.JUDGE, submission.getLanguage(), System.nanoTime() - claimed);
+                MDC.remove(TraceIds.MDC_KEY);
+            }
+        } finally {
+            leases.release(submissionId);
         }
     }
 
-    /**
-     * Runs code on Judge0 API and returns stdout/stderr/compile errors
-     */
-    private String runOnJudge0(String sourceCode, String language, String input) throws Exception {
-        // Map language to Judge0 ID
-        int languageId = switch (language.toLowerCase()) {
-            case "java" -> 62; // ✅ Correct Java ID for Judge0 CE
-            case "python", "python3" -> 71;
-            case "cpp", "c++" -> 54;
-            case "c" -> 50;
-            default -> 62;
-        };
-
-        // ✅ Encode in Base64
-        String encodedSource = Base64.getEncoder().encodeToString(sourceCode.getBytes(StandardCharsets.UTF_8));
-        String encodedInput = Base64.getEncoder().encodeToString(input.getBytes(StandardCharsets.UTF_8));
-
-        // ✅ Build request body
-        Map<String, Object> body = new HashMap<>();
-        body.put("source_code", encodedSource);
-        body.put("language_id", languageId);
-        body.put("stdin", encodedInput);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-
-        // ✅ Correct URL
-        String url = "https://ce.judge0.com/submissions?base64_encoded=true&wait=true";
-
-        // ✅ Run request in executor (15 sec timeout)
-        Future<String> future = executor.submit(() -> {
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
-
-            if (response.getBody() == null)
-                return "Error: Empty response from Judge0";
-
-            Map<String, Object> result = response.getBody();
-
-            // ✅ Decode Base64 fields safely
-            String stdout = decodeBase64((String) result.get("stdout"));
-            String stderr = decodeBase64((String) result.get("stderr"));
-            String compileOutput = decodeBase64((String) result.get("compile_output"));
-
-            if (!compileOutput.isEmpty()) return "Compilation Error:\n" + compileOutput;
-            if (!stderr.isEmpty()) return "Runtime Error:\n" + stderr;
-            return stdout.isEmpty() ? "No output" : stdout.trim();
-        });
+    private void judgeClaimed(Submission submission) throws InterruptedException {
+        Long submissionId = submission.getId();
+        log.debug("Judging submission {} (attempt {})", submissionId, submission.getAttempts());
+        tracker.started(submissionId);
+        submissionEventService.publish(SubmissionEvent.status(submissionId, SubmissionStatus.RUNNING));
+
+        // the problem and its test cases come from the catalog rather than being loaded each time;
+        // only its version is checked, for edits made on another node
+        Problem problem = submission.getProblem() == null ? null
+                : contestCatalog.currentProblem(submission.getProblem().getId()).orElse(null);
+        submission.setProblem(problem);
+        if (problem == null) {
+            finish(submission, error("Problem not found"));
+            return;
+        }
+        // a submission that keeps taking its worker down is not retried forever
+        if (submission.getAttempts() != null && submission.getAttempts() > maxAttempts) {
+            finish(submission, error("Judging was abandoned after " + maxAttempts + " attempts"));
+            return;
+        }
 
-        return future.get(15, TimeUnit.SECONDS);
+        // partial (IOI) scoring needs the result of every test, not just the first failure
+        boolean allTests = submission.getContest() != null
+                && leaderboardService.needsAllTests(submission.getContest().getId());
+        VerdictCache.Key key = VerdictCache.keyOf(submission, allTests);
+        VerdictCache.Verdict verdict = awaitCachedVerdict(key);
+        if (verdict != null) {
+            finish(submission, verdict);
+            return;
+        }
+        verdict = error("Judging was interrupted");
+        try {
+            verdict = judge(submission, problem, allTests);
+        } finally {
+            // always release the claim so identical submissions waiting on it move on
+            verdictCache.complete(key, verdict);
+        }
+        finish(submission, verdict);
     }
 
-    private String decodeBase64(String encoded) {
-        if (encoded == null || encoded.isEmpty()) return "";
-        try {
-            return new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
-        } catch (IllegalArgumentException e) {
-            return encoded; // fallback if not base64
+    /**
+     * Returns the cached verdict for {@code key}, waiting for an identical submission that is
+     * being judged right now if there is one. Returns null once this worker holds the claim.
+     */
+    private VerdictCache.Verdict awaitCachedVerdict(VerdictCache.Key key) throws InterruptedException {
+        VerdictCache.Verdict cached = verdictCache.get(key);
+        CompletableFuture<VerdictCache.Verdict> judging;
+        while (cached == null && (judging = verdictCache.claim(key)) != null) {
+            try {
+                cached = judging.get();
+            } catch (ExecutionException e) {
+                cached = null;
+            }
         }
+        return cached;
     }
 
+    private VerdictCache.Verdict judge(Submission submission, Problem problem, boolean allTests)
+            throws InterruptedException {
+        Long submissionId = submission.getId();
+        int total = problem.getTestCases().size();
+        // compile once, then run the same artifact against every test case
+        try (CompiledProgram program = testCaseRunner.compile(submission.getLanguage(), submission.getCode())) {
+            if (!program.isSuccess()) {
+                return new VerdictCache.Verdict(SubmissionStatus.COMPILATION_ERROR,
+                        "Compilation Error:\n" + program.getCompileOutput(), 0, total, List.of());
+            }
+            ExecutionLimits limits = judgeLimits.forRun(problem, program.getLanguage());
+            List<TestCaseRunner.Outcome> outcomes = testCaseRunner.run(program, problem.getTestCases(), limits,
+                    outputCheckers.forProblem(problem), allTests, (index, completed, count) -> {
+                        writeBuffer.progress(submissionId, completed, count);
+                        submissionEventService.publish(
+                                SubmissionEvent.progress(submissionId, index + 1, completed, count));
+                    });
+            return verdictOf(outcomes, total);
+        } catch (InterruptedException e) {
+            // no verdict; the lease runs out and the submission is judged again
+            throw e;
+        } catch (Exception e) {
+            return error("Execution error: " + e.getMessage());
+        }
+    }
 
+    /**
+     * The verdict is that of the lowest-numbered failing test, or ACCEPTED if none failed.
+     */
+    private VerdictCache.Verdict verdictOf(List<TestCaseRunner.Outcome> outcomes, int total) {
+        StringBuilder resultLog = new StringBuilder();
+        TestCaseRunner.Outcome failure = null;
+        int passed = 0;
+        List<VerdictCache.TestRun> tests = new ArrayList<>(outcomes.size());
+        for (TestCaseRunner.Outcome outcome : outcomes) {
+            tests.add(new VerdictCache.TestRun(outcome.index() + 1, outcome.status(), outcome.usage(),
+                    outcome.exitCode()));
+            if (outcome.passed()) {
+                passed++;
+            } else if (failure == null) {
+                failure = outcome;
+            }
+            if (outcome.passed() || outcome.status() == SubmissionStatus.WRONG_ANSWER) {
+                resultLog.append("TC #").append(outcome.index() + 1).append(" output:\n")
+                        .append(outcome.output()).append("\n");
+            }
+        }
 
+        if (failure == null) {
+            return new VerdictCache.Verdict(SubmissionStatus.ACCEPTED, "All tests passed\n" + resultLog, passed, total,
+                    tests);
+        } else if (failure.status() == SubmissionStatus.WRONG_ANSWER) {
+            return new VerdictCache.Verdict(failure.status(), failure.message() + "\n" + resultLog, passed, total,
+                    tests);
+        } else {
+            return new VerdictCache.Verdict(failure.status(), failure.message(), passed, total, tests);
+        }
+    }
 
-    private String normalize(String s) {
-        if (s == null) return "";
-        return s.trim().replaceAll("\r\n", "\n");
+    private static VerdictCache.Verdict error(String message) {
+        return new VerdictCache.Verdict(SubmissionStatus.ERROR, message, 0, 0, List.of());
     }
-    
-    private int mapLanguageToJudge0Id(String language) {
-        if (language == null) return 52; // default Java
-        return switch (language.toLowerCase()) {
-            case "java" -> 52;
-            case "python" -> 71;
-            case "c++", "cpp" -> 54;
-            case "c" -> 50;
-            // add more languages if needed
-            default -> 52; // fallback to Java
-        };
+
+    /**
+     * Persists a terminal verdict and propagates it to the leaderboard and to any
+     * clients streaming the submission. A submission that was never stored (a cached verdict
+     * at submit time) is saved whole; a leased one is only written while the lease is held.
+     */
+    private void finish(Submission submission, VerdictCache.Verdict verdict) {
+        SubmissionStatus status = verdict.status();
+        String message = verdict.message();
+        boolean leased = submission.getId() != null;
+        submission.setStatus(status);
+        submission.setPassedTests(verdict.passedTests());
+        submission.setTotalTests(verdict.totalTests());
+        submission.setCompletedTests(verdict.tests().size());
+        submission.setResultMessage(message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH) : message);
+        submission.setFinishedAt(Instant.now());
+        if (!leased) {
+            submissionRepository.save(submission);
+            writeBuffer.insertTestResults(testResults(submission.getId(), verdict));
+        } else {
+            long persistStart = System.nanoTime();
+            boolean written = writeBuffer.complete(submission.getId(), leases.getOwner(), status,
+                    submission.getPassedTests(), submission.getTotalTests(), submission.getResultMessage(),
+                    submission.getFinishedAt(), testResults(submission.getId(), verdict));
+            leases.release(submission.getId());
+            metrics.record(JudgeMetrics.Stage.PERSIST, submission.getLanguage(), System.nanoTime() - persistStart);
+            if (!written) {
+                log.warn("Lease on submission {} was lost; dropping its verdict", submission.getId());
+                return;
+            }
+        }
+        metrics.verdict(submission.getLanguage(), status);
+        log.debug("Submission {} judged {}", submission.getId(), status);
+        // applied here unless the submission is followed by a tracker that got to it first
+        if (leased && !tracker.untrack(submission.getId())) return;
+        leaderboardService.onVerdict(submission);
+        submissionEventService.publish(
+                SubmissionEvent.verdict(submission.getId(), status, submission.getResultMessage()));
     }
 
+    private static List<TestResult> testResults(Long submissionId, VerdictCache.Verdict verdict) {
+        return verdict.tests().stream()
+                .map(t -> new TestResult(submissionId, t.number(), t.status(), t.usage().wallTimeMs(),
+                        t.usage().cpuTimeMs(), t.usage().peakMemoryKb(), t.exitCode()))
+                .toList();
+    }
 }
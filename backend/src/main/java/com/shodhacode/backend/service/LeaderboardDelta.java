@@ -0,0 +1,11 @@
+package com.shodhacode.backend.service;
+
+import java.util.List;
+
+/**
+ * One coalesced leaderboard update: the users whose score changed since the previous
+ * frame, with their new score and rank. Clients merge it into the board they fetched,
+ * unless its sequence number is at or below the one that came with that board.
+ */
+public record LeaderboardDelta(Long contestId, long sequence, List<ContestLeaderboard.RankedStanding> entries) {
+}
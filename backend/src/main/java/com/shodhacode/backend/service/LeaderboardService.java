@@ -0,0 +1,287 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.LeaderboardCheckpoint;
+import com.shodhacode.backend.model.ProblemScore;
+import com.shodhacode.backend.model.ScoringMode;
+import com.shodhacode.backend.model.Submission;
+import com.shodhacode.backend.model.SubmissionStatus;
+import com.shodhacode.backend.repo.LeaderboardCheckpointRepository;
+import com.shodhacode.backend.repo.ProblemScoreRepository;
+import com.shodhacode.backend.repo.SubmissionRepository;
+import com.shodhacode.backend.web.dto.ContestView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-contest leaderboards maintained incrementally from judge verdicts, scored as ICPC or
+ * IOI according to the contest. Every verdict updates one persisted {@link ProblemScore};
+ * on startup the boards are restored from those rows and submissions are never rescanned
+ * (except once, to backfill the score table of a database that predates it).
+ * <p>
+ * Workers keep writing verdicts while no node maintains the boards, for example while the
+ * api node restarts. A {@link LeaderboardCheckpoint} records how far the boards were up to
+ * date, and on startup the verdicts that finished since then, less a safety margin for
+ * clock skew and polling lag, are applied again. Applying a verdict twice changes nothing.
+ * <p>
+ * Score rows are written behind: a verdict only swaps in a snapshot of the changed row, and
+ * the flusher writes the latest snapshot of each row every
+ * {@code leaderboard.write-behind.flush-interval-ms}, so no verdict waits on the database.
+ * A checkpoint is only saved once everything applied before it has been written.
+ * <p>
+ * Changes are also streamed to live clients. Verdicts only mark users as changed; a flusher
+ * sends at most one delta frame per contest every {@code leaderboard.stream.interval-ms},
+ * so a burst of accepted submissions reaches clients as a single update.
+ * <p>
+ * Boards live on the nodes that accept submissions; worker-only nodes neither restore nor
+ * maintain them, so that several processes never backfill the same score table.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final long STREAM_TIMEOUT_MS = 10 * 60 * 1000;
+
+    private record ScoreKey(Long contestId, String username, Long problemId) {
+    }
+
+    // the latest state of a changed row, and the live row that receives its generated id
+    private record PendingScore(ContestLeaderboard board, ProblemScore live, ProblemScore snapshot) {
+    }
+
+    private final SubmissionRepository submissionRepository;
+    private final ContestCatalog contestCatalog;
+    private final ProblemScoreRepository problemScoreRepository;
+    private final LeaderboardCheckpointRepository checkpointRepository;
+    private final Map<Long, ContestLeaderboard> boards = new ConcurrentHashMap<>();
+    private final Map<ScoreKey, PendingScore> pendingScores = new ConcurrentHashMap<>();
+    // one writer at a time, so that a row is inserted once and then only updated
+    private final Object scoreWriter = new Object();
+    private final SseRegistry<Long> streams;
+    private final boolean enabled;
+    private final long flushIntervalMs;
+    private final long writeIntervalMs;
+    private final long checkpointIntervalMs;
+    private final long replayMarginMs;
+    private ScheduledExecutorService flusher;
+
+    public LeaderboardService(SubmissionRepository submissionRepository, ContestCatalog contestCatalog,
+                              ProblemScoreRepository problemScoreRepository,
+                              LeaderboardCheckpointRepository checkpointRepository,
+                              @Value("${judge.role:all}") String role,
+                              @Value("${leaderboard.stream.interval-ms:1000}") long flushIntervalMs,
+                              @Value("${leaderboard.write-behind.flush-interval-ms:250}") long writeIntervalMs,
+                              @Value("${leaderboard.checkpoint.interval-ms:10000}") long checkpointIntervalMs,
+                              @Value("${leaderboard.checkpoint.replay-margin-ms:300000}") long replayMarginMs,
+                              @Value("${leaderboard.stream.max-subscribers:5000}") int maxSubscribers) {
+        this.submissionRepository = submissionRepository;
+        this.contestCatalog = contestCatalog;
+        this.problemScoreRepository = problemScoreRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.enabled = JudgeRole.fromName(role).acceptsSubmissions();
+        this.flushIntervalMs = flushIntervalMs;
+        this.writeIntervalMs = writeIntervalMs;
+        this.checkpointIntervalMs = checkpointIntervalMs;
+        this.replayMarginMs = replayMarginMs;
+        this.streams = new SseRegistry<>(STREAM_TIMEOUT_MS, maxSubscribers, maxSubscribers);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "leaderboard-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::writeScores, writeIntervalMs, writeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) return;
+        flusher.shutdownNow();
+        writeScores();
+    }
+
+    /**
+     * Restores the boards, after the tracker has picked up the submissions still open.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void rebuild() {
+        if (!enabled) return;
+        boards.clear();
+        // taken before reading, so that the next checkpoint cannot get ahead of this replay
+        Instant started = Instant.now();
+        List<ProblemScore> scores = problemScoreRepository.findAllWithRejections();
+        List<SubmissionRepository.ScoredVerdict> verdicts;
+        if (scores.isEmpty()) {
+            verdicts = submissionRepository.findScoredVerdicts();
+        } else {
+            for (ProblemScore score : scores) {
+                ContestLeaderboard board = board(score.getContestId());
+                if (board != null) board.load(score);
+            }
+            Instant since = checkpointRepository.findById(LeaderboardCheckpoint.ID)
+                    .map(c -> c.getAppliedUntil().minusMillis(replayMarginMs))
+                    .orElse(Instant.EPOCH);
+            verdicts = submissionRepository.findScoredVerdictsFinishedSince(since);
+            log.info("Replaying {} verdicts finished since {}", verdicts.size(), since);
+        }
+        verdicts.forEach(this::onVerdict);
+        writeScores();
+        checkpointRepository.save(new LeaderboardCheckpoint(started));
+        // only from here on, or a checkpoint could skip the verdicts this replay is looking for
+        flusher.scheduleWithFixedDelay(this::checkpoint, checkpointIntervalMs, checkpointIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Called by the judge once a submission has reached a terminal status.
+     */
+    public void onVerdict(Submission submission) {
+        if (submission.getContest() == null || submission.getProblem() == null) return;
+        record(submission.getId(), submission.getContest().getId(), submission.getUsername(),
+                submission.getProblem().getId(), submission.getStatus(), submission.getPassedTests(),
+                submission.getTotalTests(), submission.getCreatedAt());
+    }
+
+    /**
+     * Same as {@link #onVerdict(Submission)}, for a verdict read back from the database after
+     * another process judged the submission.
+     */
+    public void onVerdict(SubmissionRepository.ScoredVerdict verdict) {
+        if (verdict.getContestId() == null || verdict.getProblemId() == null) return;
+        record(verdict.getId(), verdict.getContestId(), verdict.getUsername(), verdict.getProblemId(),
+                verdict.getStatus(), verdict.getPassedTests(), verdict.getTotalTests(), verdict.getCreatedAt());
+    }
+
+    /**
+     * Whether submissions to this contest must run every test case to be scored.
+     */
+    public boolean needsAllTests(Long contestId) {
+        ContestLeaderboard board = board(contestId);
+        return board != null && board.getMode() == ScoringMode.IOI;
+    }
+
+    private void record(Long submissionId, Long contestId, String username, Long problemId,
+                        SubmissionStatus status, Integer passedTests, Integer totalTests, Instant submittedAt) {
+        ContestLeaderboard board = board(contestId);
+        if (board == null) return;
+        // snapshot under the board's lock, so that a later verdict's snapshot always replaces this one
+        synchronized (board) {
+            ProblemScore changed = board.apply(submissionId, username, problemId, status,
+                    passedTests == null ? 0 : passedTests, totalTests == null ? 0 : totalTests, submittedAt);
+            if (changed != null) {
+                pendingScores.put(new ScoreKey(contestId, username, problemId),
+                        new PendingScore(board, changed, changed.snapshot()));
+            }
+        }
+    }
+
+    /**
+     * Writes the latest snapshot of every changed row and returns whether all of them were
+     * stored. A row that fails stays pending unless a newer snapshot has replaced it meanwhile.
+     */
+    private boolean writeScores() {
+        boolean written = true;
+        synchronized (scoreWriter) {
+            for (ScoreKey key : List.copyOf(pendingScores.keySet())) {
+                PendingScore pending = pendingScores.remove(key);
+                if (pending == null) continue;
+                try {
+                    ProblemScore row = pending.snapshot();
+                    // taken before this row's first write completed; the live row has the id by now
+                    if (row.getId() == null) {
+                        synchronized (pending.board()) {
+                            row.setId(pending.live().getId());
+                        }
+                    }
+                    Long id = problemScoreRepository.save(row).getId();
+                    synchronized (pending.board()) {
+                        pending.live().setId(id);
+                    }
+                } catch (RuntimeException e) {
+                    written = false;
+                    pendingScores.putIfAbsent(key, pending);
+                    log.warn("Writing leaderboard score of {} on problem {} failed", key.username(),
+                            key.problemId(), e);
+                }
+            }
+        }
+        return written;
+    }
+
+    public ContestLeaderboard.Page page(Long contestId, int offset, int limit) {
+        ContestLeaderboard board = boards.get(contestId);
+        if (board == null) return new ContestLeaderboard.Page(0, List.of());
+        return board.page(offset, limit);
+    }
+
+    /**
+     * Opens a delta stream for the contest, or returns null when too many streams are open.
+     */
+    public SseEmitter subscribe(Long contestId) {
+        return streams.open(contestId);
+    }
+
+    private void flush() {
+        try {
+            for (Long contestId : streams.topics()) {
+                ContestLeaderboard board = boards.get(contestId);
+                LeaderboardDelta delta = board == null ? null : board.drainChanged();
+                if (delta == null) continue;
+                streams.send(contestId, "delta", delta, false);
+            }
+        } catch (RuntimeException e) {
+            // keep the flusher scheduled
+            log.warn("Leaderboard delta flush failed", e);
+        }
+    }
+
+    private void checkpoint() {
+        try {
+            Instant now = Instant.now();
+            // a verdict applied before now may not be stored yet; keep the older checkpoint
+            if (!writeScores()) return;
+            // tracked verdicts reach the boards within a poll interval; the replay margin covers that
+            checkpointRepository.save(new LeaderboardCheckpoint(now));
+        } catch (RuntimeException e) {
+            // keep the flusher scheduled; the next checkpoint catches up
+            log.warn("Saving the leaderboard checkpoint failed", e);
+        }
+    }
+
+    /**
+     * The board of a contest, with the scoring settings the catalog has for it now, so that an
+     * edit to the contest re-ranks the board. Null for a contest that does not exist.
+     */
+    private ContestLeaderboard board(Long contestId) {
+        ContestView contest = contestCatalog.contest(contestId).map(ContestCatalog.ContestSnapshot::view).orElse(null);
+        if (contest == null) return null;
+        ContestLeaderboard board = boards.computeIfAbsent(contestId, id ->
+                new ContestLeaderboard(id, contest.getScoringMode(), contest.getStartTime(), contest.getPenaltyMinutes()));
+        board.configure(contest.getScoringMode(), contest.getStartTime(), contest.getPenaltyMinutes());
+        return board;
+    }
+}
@@ -0,0 +1,90 @@
+package com.shodhacode.backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded set of open server-sent event streams, grouped by topic (a submission, a contest).
+ * Emitters unregister themselves when they complete, time out or fail.
+ */
+public class SseRegistry<K> {
+
+    private final long streamTimeoutMs;
+    private final int maxStreams;
+    private final int maxPerTopic;
+    private final Map<K, List<SseEmitter>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    public SseRegistry(long streamTimeoutMs, int maxStreams, int maxPerTopic) {
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.maxStreams = maxStreams;
+        this.maxPerTopic = maxPerTopic;
+    }
+
+    /**
+     * Opens a stream on the topic, or returns null when either limit has been reached.
+     */
+    public SseEmitter open(K topic) {
+        if (open.incrementAndGet() > maxStreams) {
+            open.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        boolean[] added = new boolean[1];
+        topics.compute(topic, (key, emitters) -> {
+            if (emitters == null) emitters = new CopyOnWriteArrayList<>();
+            if (emitters.size() < maxPerTopic) added[0] = emitters.add(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        if (!added[0]) {
+            open.decrementAndGet();
+            return null;
+        }
+
+        Runnable remove = () -> remove(topic, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    public Set<K> topics() {
+        return topics.keySet();
+    }
+
+    public boolean hasStreams(K topic) {
+        return topics.containsKey(topic);
+    }
+
+    public void send(K topic, String name, Object data, boolean last) {
+        List<SseEmitter> emitters = topics.get(topic);
+        if (emitters == null) return;
+        for (SseEmitter emitter : emitters) {
+            send(emitter, name, data, last);
+        }
+    }
+
+    public static void send(SseEmitter emitter, String name, Object data, boolean last) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            if (last) emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // client went away; the completion callback unregisters the emitter
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(K topic, SseEmitter emitter) {
+        topics.computeIfPresent(topic, (key, emitters) -> {
+            if (emitters.remove(emitter)) open.decrementAndGet();
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.shodhacode.backend.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.shodhacode.backend.model.SubmissionStatus;
+
+/**
+ * A status transition pushed to clients watching a submission. Progress events carry the
+ * test case that just passed and how many of the tests have completed so far; the verdict
+ * event carries the result message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SubmissionEvent(Long submissionId, SubmissionStatus status, Integer testCase, Integer completed,
+                              Integer total, String message) {
+
+    public static SubmissionEvent status(Long submissionId, SubmissionStatus status) {
+        return new SubmissionEvent(submissionId, status, null, null, null, null);
+    }
+
+    public static SubmissionEvent progress(Long submissionId, int testCase, int completed, int total) {
+        return new SubmissionEvent(submissionId, SubmissionStatus.RUNNING, testCase, completed, total, null);
+    }
+
+    public static SubmissionEvent verdict(Long submissionId, SubmissionStatus status, String message) {
+        return new SubmissionEvent(submissionId, status, null, null, null, message);
+    }
+
+    public String name() {
+        if (status.isTerminal()) return "verdict";
+        return testCase != null ? "progress" : "status";
+    }
+}
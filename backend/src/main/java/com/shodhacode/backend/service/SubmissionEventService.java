@@ -0,0 +1,43 @@
+package com.shodhacode.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams the progress of submissions to their authors over server-sent events.
+ * <p>
+ * The number of open streams is capped both overall and per submission; a client that is
+ * turned away falls back to polling {@code GET /api/submissions/{id}}. Streams are closed once
+ * the verdict has been sent.
+ */
+@Service
+public class SubmissionEventService {
+
+    private static final long STREAM_TIMEOUT_MS = 5 * 60 * 1000;
+
+    private final SseRegistry<Long> streams;
+
+    public SubmissionEventService(@Value("${judge.events.max-subscribers:5000}") int maxSubscribers,
+                                  @Value("${judge.events.max-per-submission:4}") int maxPerSubmission) {
+        this.streams = new SseRegistry<>(STREAM_TIMEOUT_MS, maxSubscribers, maxPerSubmission);
+    }
+
+    /**
+     * Opens a stream for the submission, or returns null when the registry is full.
+     */
+    public SseEmitter subscribe(Long submissionId) {
+        return streams.open(submissionId);
+    }
+
+    public void publish(SubmissionEvent event) {
+        streams.send(event.submissionId(), event.name(), event, event.status().isTerminal());
+    }
+
+    /**
+     * Sends an event to a single stream, e.g. the current status right after subscribing.
+     */
+    public void send(SseEmitter emitter, SubmissionEvent event) {
+        SseRegistry.send(emitter, event.name(), event, event.status().isTerminal());
+    }
+}
@@ -0,0 +1,124 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.repo.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row-level leases that let any number of judge processes share the submissions table as
+ * their queue. A worker claims a submission with a conditional update that only succeeds
+ * while the row is PENDING or its previous lease has expired, and keeps the lease alive
+ * with a heartbeat every third of {@code judge.lease.duration-ms}: one update for all the
+ * leases the process holds. If the worker dies the lease runs out and another worker claims
+ * the submission again. A verdict is only stored while the lease is still held (see
+ * {@link SubmissionWriteBuffer#complete}), so a worker that stalled past its lease cannot
+ * overwrite the verdict of the worker that took over.
+ */
+@Component
+public class SubmissionLeases {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionLeases.class);
+
+    private final SubmissionRepository submissionRepository;
+    private final long leaseMs;
+    private final String owner;
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService heartbeat;
+
+    public SubmissionLeases(SubmissionRepository submissionRepository,
+                            @Value("${judge.lease.duration-ms:30000}") long leaseMs,
+                            @Value("${judge.worker.id:}") String workerId) {
+        this.submissionRepository = submissionRepository;
+        this.leaseMs = leaseMs;
+        // unique per process, so that a restarted worker does not mistake old leases for its own
+        String id = workerId.isBlank() ? hostname() + "-" + ProcessHandle.current().pid() : workerId;
+        this.owner = id + "-" + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+    }
+
+    @PostConstruct
+    public void init() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "judge-lease-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(leaseMs / 3, 1);
+        heartbeat.scheduleWithFixedDelay(this::renew, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    /**
+     * Up to {@code max} submissions that can be claimed right now, oldest first.
+     */
+    public List<Long> claimable(int max) {
+        return submissionRepository.findClaimableIds(Instant.now(), Limit.of(max));
+    }
+
+    /**
+     * Takes the lease on a submission and marks it RUNNING. Returns false if it is not
+     * claimable, e.g. because another worker claimed it first.
+     */
+    public boolean claim(Long submissionId) {
+        Instant now = Instant.now();
+        if (submissionRepository.claim(submissionId, owner, now, now.plusMillis(leaseMs)) == 0) return false;
+        held.add(submissionId);
+        return true;
+    }
+
+    /**
+     * Stops heartbeating a submission once its verdict has been written (or the write found
+     * the lease lost).
+     */
+    public void release(Long submissionId) {
+        held.remove(submissionId);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private void renew() {
+        try {
+            if (held.isEmpty()) return;
+            List<Long> ids = List.copyOf(held);
+            int renewed = submissionRepository.renewLeases(ids, owner, Instant.now().plusMillis(leaseMs));
+            if (renewed < ids.size()) {
+                // finished in the meantime, or judging took so long that another worker took over
+                log.info("Renewed {} of {} judge leases held by {}", renewed, ids.size(), owner);
+            }
+        } catch (RuntimeException e) {
+            // keep the heartbeat scheduled; leases survive a missed beat or two
+            log.warn("Renewing judge leases failed", e);
+        }
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "judge";
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.SubmissionStatus;
+import com.shodhacode.backend.repo.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows the submissions accepted by this node until their verdict, for when they are
+ * judged by a worker process. The leaderboard and the event streams live on the node that
+ * accepted the submission, so it polls the submissions table for the ones still open and
+ * applies their status changes here, including the test progress the worker writes behind.
+ * <p>
+ * A verdict is applied by whoever removes the submission from the tracked set first: this
+ * poller, or the local judge when it judged the submission itself. That keeps a verdict from
+ * reaching the leaderboard twice. Tracking is off on worker-only nodes.
+ */
+@Component
+public class SubmissionTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionTracker.class);
+
+    // ids per status query, to keep the IN list reasonable
+    private static final int QUERY_CHUNK = 500;
+
+    private static final Seen QUEUED = new Seen(SubmissionStatus.PENDING, 0);
+    private static final Seen STARTED_HERE = new Seen(SubmissionStatus.RUNNING, Integer.MAX_VALUE);
+
+    private record Seen(SubmissionStatus status, int completedTests) {
+    }
+
+    private final SubmissionRepository submissionRepository;
+    private final LeaderboardService leaderboardService;
+    private final SubmissionEventService submissionEventService;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    // what clients have been told, per open submission
+    private final Map<Long, Seen> tracked = new ConcurrentHashMap<>();
+    private ScheduledExecutorService poller;
+
+    public SubmissionTracker(SubmissionRepository submissionRepository, LeaderboardService leaderboardService,
+                             SubmissionEventService submissionEventService,
+                             @Value("${judge.role:all}") String role,
+                             @Value("${judge.tracker.poll-interval-ms:500}") long pollIntervalMs) {
+        this.submissionRepository = submissionRepository;
+        this.leaderboardService = leaderboardService;
+        this.submissionEventService = submissionEventService;
+        this.enabled = JudgeRole.fromName(role).acceptsSubmissions();
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    /**
+     * Picks up submissions left open by a previous run. This runs before the leaderboards
+     * replay finished verdicts, so that a submission finishing in between is not missed by both.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void recover() {
+        if (!enabled) return;
+        submissionRepository.findIdsByStatusIn(List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING))
+                .forEach(this::track);
+    }
+
+    /**
+     * Starts polling once the leaderboards have been restored.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void start() {
+        if (!enabled) return;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "submission-tracker");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) poller.shutdownNow();
+    }
+
+    public void track(Long submissionId) {
+        if (enabled) tracked.putIfAbsent(submissionId, QUEUED);
+    }
+
+    /**
+     * Marks a tracked submission as started by the local judge, which tells its clients itself.
+     */
+    public void started(Long submissionId) {
+        tracked.replace(submissionId, QUEUED, STARTED_HERE);
+    }
+
+    /**
+     * Stops tracking a submission whose verdict the caller is about to apply. Returns false if
+     * it was not tracked here or its verdict has been applied already.
+     */
+    public boolean untrack(Long submissionId) {
+        return tracked.remove(submissionId) != null;
+    }
+
+    private void poll() {
+        try {
+            List<Long> ids = new ArrayList<>(tracked.keySet());
+            for (int from = 0; from < ids.size(); from += QUERY_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + QUERY_CHUNK));
+                submissionRepository.findStartedByIdIn(chunk).forEach(this::apply);
+            }
+        } catch (RuntimeException e) {
+            // keep the poller scheduled
+            log.warn("Polling tracked submissions failed", e);
+        }
+    }
+
+    private void apply(SubmissionRepository.JudgedSubmission submission) {
+        Long id = submission.getId();
+        SubmissionStatus status = submission.getStatus();
+        if (status.isTerminal()) {
+            if (!untrack(id)) return;
+            leaderboardService.onVerdict(submission);
+            submissionEventService.publish(SubmissionEvent.verdict(id, status, submission.getResultMessage()));
+            return;
+        }
+        Seen seen = tracked.get(id);
+        if (seen == null) return;
+        int completed = submission.getCompletedTests() == null ? 0 : submission.getCompletedTests();
+        if (seen.status() != status && tracked.replace(id, seen, new Seen(status, 0))) {
+            submissionEventService.publish(SubmissionEvent.status(id, status));
+            seen = tracked.get(id);
+        }
+        if (seen != null && completed > seen.completedTests()
+                && tracked.replace(id, seen, new Seen(status, completed))) {
+            // remote progress only has counts; with tests run in order the last one finished is the count
+            int total = submission.getTotalTests() == null ? completed : submission.getTotalTests();
+            submissionEventService.publish(SubmissionEvent.progress(id, completed, completed, total));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.SubmissionStatus;
+import com.shodhacode.backend.model.TestResult;
+import com.shodhacode.backend.repo.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the state of submissions under judging as targeted column updates rather than
+ * entity merges, which would rewrite the code LOB every time.
+ * <p>
+ * Progress is write-behind: only the latest count per submission is kept, and a flusher
+ * writes all of them as one JDBC batch every {@code judge.write-behind.flush-interval-ms}.
+ * A verdict is written synchronously, together with its per-test results in the same
+ * transaction, and supersedes whatever progress is still buffered for the submission;
+ * progress updates only apply to RUNNING rows, so a late batch cannot undo a verdict.
+ */
+@Component
+public class SubmissionWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionWriteBuffer.class);
+
+    // table and column names as mapped by the default Spring naming strategy
+    private static final String UPDATE_PROGRESS = "update submission set completed_tests = ?, total_tests = ? "
+            + "where id = ? and status = 'RUNNING'";
+    private static final String INSERT_TEST_RESULT = "insert into test_result (submission_id, test_number, status, "
+            + "wall_time_ms, cpu_time_ms, peak_memory_kb, exit_code) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] TEST_RESULT_TYPES = {Types.BIGINT, Types.INTEGER, Types.VARCHAR, Types.BIGINT,
+            Types.BIGINT, Types.BIGINT, Types.INTEGER};
+
+    private record Progress(int completed, int total) {
+    }
+
+    private final SubmissionRepository submissionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushIntervalMs;
+    private final Map<Long, Progress> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    public SubmissionWriteBuffer(SubmissionRepository submissionRepository, JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${judge.write-behind.flush-interval-ms:250}") long flushIntervalMs) {
+        this.submissionRepository = submissionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    public void init() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "submission-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Buffers how many tests of a running submission have completed.
+     */
+    public void progress(Long submissionId, int completed, int total) {
+        pending.put(submissionId, new Progress(completed, total));
+    }
+
+    /**
+     * Stores the verdict and test results of a submission leased to {@code leaseOwner} and
+     * releases the lease. Returns false, having written nothing, if the lease was lost.
+     */
+    public boolean complete(Long submissionId, String leaseOwner, SubmissionStatus status, Integer passedTests,
+                            Integer totalTests, String message, Instant finishedAt, List<TestResult> tests) {
+        pending.remove(submissionId);
+        Boolean written = transactionTemplate.execute(tx -> {
+            if (submissionRepository.complete(submissionId, leaseOwner, status, passedTests, totalTests, tests.size(),
+                    message, finishedAt) == 0) return false;
+            insertTestResults(tests);
+            return true;
+        });
+        return Boolean.TRUE.equals(written);
+    }
+
+    /**
+     * Inserts per-test results as one batch; identity keys keep Hibernate from batching them.
+     */
+    public void insertTestResults(List<TestResult> tests) {
+        if (tests.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>(tests.size());
+        for (TestResult t : tests) {
+            rows.add(new Object[]{t.getSubmissionId(), t.getTestNumber(), t.getStatus().name(), t.getWallTimeMs(),
+                    t.getCpuTimeMs(), t.getPeakMemoryKb(), t.getExitCode()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_TEST_RESULT, rows, TEST_RESULT_TYPES);
+    }
+
+    private void flush() {
+        try {
+            if (pending.isEmpty()) return;
+            List<Object[]> rows = new ArrayList<>();
+            for (Long id : List.copyOf(pending.keySet())) {
+                Progress progress = pending.remove(id);
+                if (progress != null) rows.add(new Object[]{progress.completed(), progress.total(), id});
+            }
+            jdbcTemplate.batchUpdate(UPDATE_PROGRESS, rows);
+        } catch (RuntimeException e) {
+            // progress is advisory; the next update or the verdict supersedes what was lost
+            log.warn("Writing buffered test progress failed", e);
+        }
+    }
+}
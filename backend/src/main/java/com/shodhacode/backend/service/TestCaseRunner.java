@@ -0,0 +1,268 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.SubmissionStatus;
+import com.shodhacode.backend.model.TestCase;
+import com.shodhacode.backend.service.checker.OutputChecker;
+import com.shodhacode.backend.service.execution.CompiledProgram;
+import com.shodhacode.backend.service.execution.ExecutionEngine;
+import com.shodhacode.backend.service.execution.ExecutionLimits;
+import com.shodhacode.backend.service.execution.ExecutionResult;
+import com.shodhacode.backend.service.execution.ResourceUsage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compiles submissions and runs them against a problem's test cases.
+ * <p>
+ * Every call into the {@link ExecutionEngine} holds one of {@code judge.execution.max-concurrency}
+ * permits, which is what actually bounds the load on the execution backend; callers run on
+ * virtual threads and simply park while they wait for a permit.
+ * <p>
+ * With {@code judge.test-parallelism} above 1 the tests of one submission run concurrently.
+ * The first failure cancels every run with a higher index, but runs with a lower index are
+ * always allowed to finish, so the reported failure is the lowest-numbered failing test no
+ * matter in which order the runs complete. Partial scoring needs every test, so it can ask
+ * for all of them to run regardless of failures.
+ */
+@Component
+public class TestCaseRunner {
+
+    // how much of each run's output is kept for the result log
+    private static final int OUTPUT_PREVIEW_CHARS = 512;
+
+    private final ExecutionEngine executionEngine;
+    private final TestDataStore testData;
+    private final JudgeMetrics metrics;
+    private final int parallelism;
+    private final Semaphore executionPermits;
+    private final ExecutorService testExecutor;
+
+    public TestCaseRunner(ExecutionEngine executionEngine, TestDataStore testData, JudgeMetrics metrics,
+                          @Value("${judge.test-parallelism:1}") int parallelism,
+                          @Value("${judge.execution.max-concurrency:8}") int maxConcurrency) {
+        this.executionEngine = executionEngine;
+        this.testData = testData;
+        this.metrics = metrics;
+        this.parallelism = Math.max(1, parallelism);
+        this.executionPermits = new Semaphore(maxConcurrency, true);
+        metrics.inFlight("executions", () -> maxConcurrency - executionPermits.availablePermits());
+        this.testExecutor = this.parallelism > 1
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("judge-test-", 0).factory())
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (testExecutor != null) testExecutor.shutdownNow();
+    }
+
+    public CompiledProgram compile(String language, String sourceCode) throws Exception {
+        acquirePermit(language);
+        long start = System.nanoTime();
+        try {
+            return executionEngine.compile(language, sourceCode);
+        } finally {
+            executionPermits.release();
+            metrics.record(JudgeMetrics.Stage.COMPILE, language, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the outcomes of the tests up to and including the first failing one, in test order,
+     * or of every test when {@code runAll} is set.
+     */
+    public List<Outcome> run(CompiledProgram program, List<TestCase> testCases, ExecutionLimits limits,
+                             OutputChecker checker, boolean runAll, ProgressListener listener)
+            throws InterruptedException {
+        int n = testCases.size();
+        if (testExecutor == null || n < 2) {
+            List<Outcome> outcomes = new ArrayList<>();
+            int passed = 0;
+            for (int i = 0; i < n; i++) {
+                Outcome outcome = evaluate(program, testCases.get(i), i, limits, checker);
+                outcomes.add(outcome);
+                if (outcome.passed()) {
+                    listener.testPassed(i, ++passed, n);
+                } else if (!runAll || outcome.status() == SubmissionStatus.COMPILATION_ERROR) {
+                    break;
+                }
+            }
+            return outcomes;
+        }
+        return runParallel(program, testCases, limits, checker, runAll, listener);
+    }
+
+    private List<Outcome> runParallel(CompiledProgram program, List<TestCase> testCases, ExecutionLimits limits,
+                                      OutputChecker checker, boolean runAll, ProgressListener listener)
+            throws InterruptedException {
+        int n = testCases.size();
+        AtomicInteger passed = new AtomicInteger();
+        Outcome[] outcomes = new Outcome[n];
+        // the lowest failing index, above which runs are cancelled; stays at n when every test must run
+        AtomicInteger cutoff = new AtomicInteger(n);
+        AtomicReferenceArray<Future<?>> runs = new AtomicReferenceArray<>(n);
+        Semaphore permits = new Semaphore(parallelism);
+
+        try {
+            for (int i = 0; i < n; i++) {
+                permits.acquire();
+                if (i > cutoff.get()) {
+                    permits.release();
+                    break;
+                }
+                int index = i;
+                // whoever sets this releases the permit: the run itself once it is over, or the
+                // cancellation when the run never started
+                AtomicBoolean owned = new AtomicBoolean();
+                FutureTask<Void> task = new FutureTask<>(() -> {
+                    if (!owned.compareAndSet(false, true)) return null;
+                    try {
+                        Outcome outcome = evaluate(program, testCases.get(index), index, limits, checker);
+                        outcomes[index] = outcome;
+                        if (outcome.passed()) {
+                            listener.testPassed(index, passed.incrementAndGet(), n);
+                        } else if ((!runAll || outcome.status() == SubmissionStatus.COMPILATION_ERROR)
+                                && cutoff.accumulateAndGet(index, Math::min) == index) {
+                            cancelAbove(runs, index);
+                        }
+                        return null;
+                    } finally {
+                        permits.release();
+                    }
+                }) {
+                    @Override
+                    protected void done() {
+                        // a cancelled run may still be executing; it releases its permit when it ends
+                        if (owned.compareAndSet(false, true)) permits.release();
+                    }
+                };
+                runs.set(index, task);
+                testExecutor.execute(task);
+                if (index > cutoff.get()) task.cancel(true);
+            }
+
+            List<Outcome> result = new ArrayList<>();
+            for (int i = 0; i < n && i <= cutoff.get(); i++) {
+                Future<?> run = runs.get(i);
+                try {
+                    run.get();
+                } catch (CancellationException e) {
+                    // only runs above a failure are cancelled
+                    continue;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof InterruptedException interrupted) throw interrupted;
+                    outcomes[i] = error(i, e.getCause());
+                    if (!runAll) cutoff.accumulateAndGet(i, Math::min);
+                }
+                if (i <= cutoff.get()) result.add(outcomes[i]);
+            }
+            return result;
+        } finally {
+            cancelAbove(runs, -1);
+        }
+    }
+
+    private static void cancelAbove(AtomicReferenceArray<Future<?>> runs, int index) {
+        for (int i = index + 1; i < runs.length(); i++) {
+            Future<?> run = runs.get(i);
+            if (run != null) run.cancel(true);
+        }
+    }
+
+    private Outcome evaluate(CompiledProgram program, TestCase tc, int index, ExecutionLimits limits,
+                             OutputChecker checker) throws InterruptedException {
+        int number = index + 1;
+        String language = program.getLanguage().name();
+        try {
+            Path input = testData.open(tc.getInputHash());
+            Path expected = testData.open(tc.getExpectedHash());
+            ExecutionResult result;
+            acquirePermit(language);
+            long runStart = System.nanoTime();
+            try {
+                result = executionEngine.run(program, input, limits);
+            } finally {
+                executionPermits.release();
+                metrics.record(JudgeMetrics.Stage.RUN, language, System.nanoTime() - runStart);
+            }
+            try (result) {
+                String output = result.stdoutPreview(OUTPUT_PREVIEW_CHARS);
+                ResourceUsage usage = result.getUsage();
+                Integer exitCode = result.getExitCode();
+                return switch (result.getOutcome()) {
+                    case COMPILATION_ERROR -> new Outcome(index, SubmissionStatus.COMPILATION_ERROR,
+                            "Compilation Error:\n" + result.getCompileOutput(), output, usage, exitCode);
+                    case TIME_LIMIT_EXCEEDED -> new Outcome(index, SubmissionStatus.TIMED_OUT,
+                            "Timed out on testcase " + number, output, usage, exitCode);
+                    case MEMORY_LIMIT_EXCEEDED -> new Outcome(index, SubmissionStatus.MEMORY_LIMIT_EXCEEDED,
+                            "Memory limit exceeded on testcase " + number, output, usage, exitCode);
+                    case RUNTIME_ERROR -> new Outcome(index, SubmissionStatus.RUNTIME_ERROR,
+                            "Runtime error on testcase " + number + "\n" + result.getStderr(), output, usage, exitCode);
+                    case OK -> {
+                        OutputChecker.Result check;
+                        long compareStart = System.nanoTime();
+                        try (Reader actual = result.openStdout()) {
+                            check = checker.check(input, expected, actual);
+                        } finally {
+                            metrics.record(JudgeMetrics.Stage.COMPARE, language, System.nanoTime() - compareStart);
+                        }
+                        yield check.accepted()
+                                ? new Outcome(index, SubmissionStatus.ACCEPTED, null, output, usage, exitCode)
+                                : new Outcome(index, SubmissionStatus.WRONG_ANSWER,
+                                "Wrong answer on testcase " + number + " (" + check.detail() + ")", output, usage,
+                                exitCode);
+                    }
+                };
+            }
+        } catch (InterruptedException e) {
+            // shutdown or a cancelled run: stop instead of moving on to the next test
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (Exception e) {
+            metrics.executionError(language, e);
+            return error(index, e);
+        }
+    }
+
+    private void acquirePermit(String language) throws InterruptedException {
+        long start = System.nanoTime();
+        executionPermits.acquire();
+        metrics.record(JudgeMetrics.Stage.WAIT, language, System.nanoTime() - start);
+    }
+
+    private static Outcome error(int index, Throwable e) {
+        // a deadline missed on our side includes backend queueing and retries, so it is not the
+        // program's fault; TIMED_OUT only comes from the engine's own time limit
+        if (e instanceof TimeoutException)
+            return new Outcome(index, SubmissionStatus.ERROR, "Execution backend did not return a result in time",
+                    "", ResourceUsage.UNKNOWN, null);
+        return new Outcome(index, SubmissionStatus.ERROR, "Execution error: " + e.getMessage(), "",
+                ResourceUsage.UNKNOWN, null);
+    }
+
+    public interface ProgressListener {
+        /**
+         * Called as each test passes; {@code completed} counts the passed tests so far,
+         * which under parallel execution need not be the first {@code completed} tests.
+         */
+        void testPassed(int index, int completed, int total);
+    }
+
+    public record Outcome(int index, SubmissionStatus status, String message, String output, ResourceUsage usage,
+                          Integer exitCode) {
+        public boolean passed() {
+            return status == SubmissionStatus.ACCEPTED;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.TestCase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for test inputs and expected outputs. Each blob is a file named by
+ * the SHA-256 of its bytes under {@code judge.testdata.dir}, so identical data is stored once
+ * and a stored file never changes. The database only keeps hashes and sizes; engines and
+ * checkers read the files directly, so test data is never loaded into a string.
+ */
+@Component
+public class TestDataStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path incoming;
+
+    public TestDataStore(@Value("${judge.testdata.dir:./data/testdata}") String dir) throws IOException {
+        this.root = Files.createDirectories(Path.of(dir).toAbsolutePath().normalize());
+        this.incoming = Files.createDirectories(root.resolve("incoming"));
+    }
+
+    public record Blob(String hash, long size) {
+    }
+
+    /**
+     * Stores a test case given as text; meant for small, hand-written tests.
+     */
+    public TestCase testCase(String input, String expectedOutput) throws IOException {
+        return testCase(put(input), put(expectedOutput));
+    }
+
+    public static TestCase testCase(Blob input, Blob expectedOutput) {
+        return new TestCase(input.hash(), input.size(), expectedOutput.hash(), expectedOutput.size());
+    }
+
+    public Blob put(String text) throws IOException {
+        return put(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Copies the stream into the store while hashing it and returns its address. The stream is
+     * not closed.
+     */
+    public Blob put(InputStream data) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(incoming, "blob-", ".tmp");
+        try {
+            long size;
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                size = new DigestInputStream(data, digest).transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ignored) {
+                    // stored concurrently by someone else; the content is the same
+                }
+            }
+            return new Blob(hash, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Location of a stored blob; fails if it is missing, since a test case without its data
+     * cannot be judged.
+     */
+    public Path open(String hash) throws IOException {
+        Path file = path(hash);
+        if (!Files.isRegularFile(file)) throw new NoSuchFileException(file.toString(), null, "test data missing");
+        return file;
+    }
+
+    /**
+     * The first {@code maxChars} characters of a blob, for showing sample tests.
+     */
+    public String preview(String hash, int maxChars) throws IOException {
+        try (Reader in = Files.newBufferedReader(open(hash), StandardCharsets.UTF_8)) {
+            char[] buf = new char[maxChars];
+            int n = 0;
+            for (int r; n < maxChars && (r = in.read(buf, n, maxChars - n)) > 0; ) {
+                n += r;
+            }
+            return new String(buf, 0, n);
+        }
+    }
+
+    private Path path(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches())
+            throw new IllegalArgumentException("Not a test data hash: " + hash);
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.shodhacode.backend.service;
+
+import org.slf4j.MDC;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Trace ids that follow a submission from the request that created it to its verdict. The
+ * id in effect is kept in the logging MDC under {@link #MDC_KEY}, which the log pattern
+ * prints on every line: the web filter sets it per request, and the judge sets the
+ * submission's stored id while judging it, on whichever node that happens.
+ */
+public final class TraceIds {
+
+    public static final String MDC_KEY = "traceId";
+    public static final String HEADER = "X-Trace-Id";
+
+    // ids from clients end up in logs and in a column, so only plain tokens are taken over
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private TraceIds() {
+    }
+
+    /**
+     * The client's id if it is usable, otherwise a new one.
+     */
+    public static String fromHeader(String header) {
+        return header != null && VALID.matcher(header).matches() ? header : newId();
+    }
+
+    /**
+     * 128 random bits as 32 hex digits, the same shape as a W3C trace id.
+     */
+    public static String newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HexFormat hex = HexFormat.of();
+        return hex.toHexDigits(random.nextLong()) + hex.toHexDigits(random.nextLong());
+    }
+
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+}
@@ -0,0 +1,124 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.Problem;
+import com.shodhacode.backend.model.Submission;
+import com.shodhacode.backend.model.SubmissionStatus;
+import com.shodhacode.backend.service.execution.Language;
+import com.shodhacode.backend.service.execution.ResourceUsage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verdicts of previously judged code, keyed by problem, test-set version, language and a hash
+ * of the normalized source, so that resubmitting identical code does not run the tests again.
+ * <p>
+ * The problem's {@code @Version} is part of the key: editing its test cases bumps the version
+ * and older entries simply stop matching until LRU eviction drops them. Only deterministic
+ * verdicts are cached; timeouts and judge errors may not repeat.
+ * <p>
+ * Identical submissions that are judged at the same time (a double-submit) are coalesced:
+ * the first one runs the tests and the others wait for its verdict.
+ */
+@Component
+public class VerdictCache {
+
+    /**
+     * {@code allTests} separates runs that went through every test (partial scoring) from runs
+     * that stopped at the first failure, whose passed-test counts differ.
+     */
+    public record Key(Long problemId, Long testSetVersion, Language language, String sourceHash,
+                      boolean allTests) {
+    }
+
+    /**
+     * {@code tests} holds the tests that ran, in order; a cached verdict hands out the
+     * measurements of the run that produced it.
+     */
+    public record Verdict(SubmissionStatus status, String message, int passedTests, int totalTests,
+                          List<TestRun> tests) {
+    }
+
+    public record TestRun(int number, SubmissionStatus status, ResourceUsage usage, Integer exitCode) {
+    }
+
+    private final int capacity;
+    private final Map<Key, Verdict> entries;
+    private final Map<Key, CompletableFuture<Verdict>> judging = new ConcurrentHashMap<>();
+
+    public VerdictCache(@Value("${judge.verdict-cache.max-entries:10000}") int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Verdict> eldest) {
+                return size() > VerdictCache.this.capacity;
+            }
+        };
+    }
+
+    public static Key keyOf(Submission submission, boolean allTests) {
+        Problem problem = submission.getProblem();
+        return new Key(problem.getId(), problem.getVersion(), Language.fromName(submission.getLanguage()),
+                hash(submission.getCode()), allTests);
+    }
+
+    public Verdict get(Key key) {
+        if (capacity <= 0) return null;
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Registers the caller as the one judging {@code key}. Returns null if it should go ahead,
+     * or the verdict future of an identical submission that is already being judged; that
+     * future completes with null if the verdict turns out not to be cacheable.
+     */
+    public CompletableFuture<Verdict> claim(Key key) {
+        if (capacity <= 0) return null;
+        return judging.putIfAbsent(key, new CompletableFuture<>());
+    }
+
+    /**
+     * Records the verdict of a claimed key and hands it to any waiting duplicates.
+     */
+    public void complete(Key key, Verdict result) {
+        if (capacity <= 0) return;
+        Verdict verdict = cacheable(result.status()) ? result : null;
+        if (verdict != null) {
+            synchronized (entries) {
+                entries.put(key, verdict);
+            }
+        }
+        CompletableFuture<Verdict> waiting = judging.remove(key);
+        if (waiting != null) waiting.complete(verdict);
+    }
+
+    private static boolean cacheable(SubmissionStatus status) {
+        return status == SubmissionStatus.ACCEPTED || status == SubmissionStatus.WRONG_ANSWER
+                || status == SubmissionStatus.COMPILATION_ERROR;
+    }
+
+    /**
+     * SHA-256 of the source with line endings unified and trailing blank space dropped, which
+     * is what editors and copy-paste usually change without changing the program.
+     */
+    static String hash(String source) {
+        String normalized = source.replace("\r\n", "\n").stripTrailing();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
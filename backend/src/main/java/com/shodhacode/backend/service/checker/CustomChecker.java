@@ -0,0 +1,75 @@
+package com.shodhacode.backend.service.checker;
+
+import com.shodhacode.backend.service.execution.Scratch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a problem-specific checker program as {@code <command> input expected actual}. Exit
+ * status 0 accepts; otherwise the first line the checker printed becomes the detail.
+ */
+class CustomChecker implements OutputChecker {
+
+    private static final int MAX_DETAIL_BYTES = 1024;
+
+    private final List<String> command;
+    private final Path workRoot;
+    private final long timeoutMs;
+
+    CustomChecker(String command, Path workRoot, long timeoutMs) {
+        this.command = Arrays.asList(command.trim().split("\\s+"));
+        this.workRoot = workRoot;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public Result check(Path input, Path expected, Reader actual) throws IOException {
+        Path dir = Files.createTempDirectory(workRoot, "check-");
+        try {
+            Path output = dir.resolve("actual.txt");
+            try (Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                actual.transferTo(out);
+            }
+
+            List<String> argv = new ArrayList<>(command);
+            argv.addAll(List.of(input.toString(), expected.toString(), output.toString()));
+            Path log = dir.resolve("checker.txt");
+            Process process = new ProcessBuilder(argv)
+                    .directory(dir.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            try {
+                if (!process.waitFor(timeoutMs, TimeUnit.MILLISECONDS))
+                    throw new IOException("Checker timed out");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Checker interrupted", e);
+            } finally {
+                process.destroyForcibly();
+            }
+            if (process.exitValue() == 0) return Result.ACCEPTED;
+            return Result.rejected(firstLine(log));
+        } finally {
+            Scratch.delete(dir);
+        }
+    }
+
+    private static String firstLine(Path log) throws IOException {
+        try (InputStream in = Files.newInputStream(log)) {
+            String text = new String(in.readNBytes(MAX_DETAIL_BYTES), StandardCharsets.UTF_8).strip();
+            int end = text.indexOf('\n');
+            return text.isEmpty() ? "rejected by checker" : end < 0 ? text : text.substring(0, end).strip();
+        }
+    }
+}
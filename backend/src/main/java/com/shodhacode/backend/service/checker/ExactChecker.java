@@ -0,0 +1,126 @@
+package com.shodhacode.backend.service.checker;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Line-by-line comparison that ignores trailing whitespace on each line, CRLF vs LF line
+ * endings, and blank space before the first and after the last content, as trimming both
+ * sides would. Both sides are read one character at a time; only
+ * whitespace that may turn out to be trailing is held back.
+ */
+class ExactChecker implements OutputChecker {
+
+    static final ExactChecker INSTANCE = new ExactChecker();
+
+    @Override
+    public Result check(Path input, Path expected, Reader actual) throws IOException {
+        try (Reader expectedReader = Files.newBufferedReader(expected, StandardCharsets.UTF_8)) {
+            return compare(new CanonicalText(expectedReader), actual);
+        }
+    }
+
+    private static Result compare(CanonicalText want, Reader actual) throws IOException {
+        CanonicalText got = new CanonicalText(actual);
+        int line = 1;
+        while (true) {
+            int w = want.next();
+            int g = got.next();
+            if (w != g) {
+                // a line end where the other side stopped means the difference is the next line
+                int at = w == '\n' || g == '\n' ? line + 1 : line;
+                if (w == -1) return Result.rejected("line " + at + ": unexpected extra output");
+                if (g == -1) return Result.rejected("line " + at + ": output ended early");
+                return Result.rejected("line " + line + " differs");
+            }
+            if (w == -1) return Result.ACCEPTED;
+            if (w == '\n') line++;
+        }
+    }
+
+    /**
+     * Yields the characters of a text with line endings unified to LF, whitespace before a
+     * line end dropped, and blank space at the very start and the very end dropped.
+     */
+    private static final class CanonicalText {
+        private static final int NONE = -2;
+
+        private final Reader in;
+        private final char[] buf = new char[8192];
+        private int pos;
+        private int len;
+        // line ends and the blanks after the last of them, held back until more content follows
+        private int newlines;
+        private final StringBuilder blanks = new StringBuilder();
+        private int emitNewlines;
+        private int emitBlank;
+        private int afterPending = NONE;
+        private boolean started;
+
+        CanonicalText(Reader in) {
+            this.in = in;
+        }
+
+        int next() throws IOException {
+            if (afterPending != NONE) {
+                if (emitNewlines > 0) {
+                    emitNewlines--;
+                    return '\n';
+                }
+                if (emitBlank < blanks.length()) return blanks.charAt(emitBlank++);
+                int c = afterPending;
+                afterPending = NONE;
+                blanks.setLength(0);
+                return c;
+            }
+            while (true) {
+                int c = read();
+                if (c == '\r' && peek() == '\n') c = read();
+                if (c == -1) return -1; // anything still held back is trailing
+                if (!started) {
+                    // leading blank lines and indentation of the first line
+                    if (c == '\n' || c == '\r' || c == ' ' || c == '\t') continue;
+                    started = true;
+                }
+                if (c == '\n') {
+                    // blanks before a line end are trailing whitespace
+                    newlines++;
+                    blanks.setLength(0);
+                } else if (c == ' ' || c == '\t') {
+                    blanks.append((char) c);
+                } else if (newlines == 0 && blanks.isEmpty()) {
+                    return c;
+                } else {
+                    emitNewlines = newlines;
+                    newlines = 0;
+                    emitBlank = 0;
+                    afterPending = c;
+                    return next();
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (pos == len && !fill()) return -1;
+            return buf[pos++];
+        }
+
+        private int peek() throws IOException {
+            if (pos == len && !fill()) return -1;
+            return buf[pos];
+        }
+
+        private boolean fill() throws IOException {
+            len = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.shodhacode.backend.service.checker;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+
+/**
+ * Decides whether a program's output is correct for a test case. Implementations read the
+ * output and the stored expected output as streams and stop at the first mismatch.
+ */
+public interface OutputChecker {
+
+    /**
+     * {@code input} and {@code expected} are the test case's files in the test data store and
+     * must not be modified.
+     */
+    Result check(Path input, Path expected, Reader actual) throws IOException;
+
+    /**
+     * {@code detail} says where the outputs first differ; it is null when accepted.
+     */
+    record Result(boolean accepted, String detail) {
+        static final Result ACCEPTED = new Result(true, null);
+
+        static Result rejected(String detail) {
+            return new Result(false, detail);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.shodhacode.backend.service.checker;
+
+import com.shodhacode.backend.model.CheckerMode;
+import com.shodhacode.backend.model.Problem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Picks the {@link OutputChecker} configured on a problem.
+ */
+@Component
+public class OutputCheckers {
+
+    private final Path workRoot;
+    private final long customTimeoutMs;
+
+    public OutputCheckers(@Value("${judge.checker.work-dir:${java.io.tmpdir}/judge-checker}") String workDir,
+                          @Value("${judge.checker.timeout-ms:10000}") long customTimeoutMs) throws IOException {
+        this.workRoot = Files.createDirectories(Path.of(workDir));
+        this.customTimeoutMs = customTimeoutMs;
+    }
+
+    public OutputChecker forProblem(Problem problem) {
+        CheckerMode mode = problem.getCheckerMode() == null ? CheckerMode.EXACT : problem.getCheckerMode();
+        return switch (mode) {
+            case EXACT -> ExactChecker.INSTANCE;
+            case TOKENS -> TokenChecker.EXACT_TOKENS;
+            case FLOAT -> new TokenChecker(Math.max(0, problem.getCheckerEpsilon()));
+            case CUSTOM -> {
+                if (problem.getCheckerCommand() == null || problem.getCheckerCommand().isBlank())
+                    throw new IllegalStateException("Problem " + problem.getId() + " has no checker command");
+                yield new CustomChecker(problem.getCheckerCommand(), workRoot, customTimeoutMs);
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.shodhacode.backend.service.checker;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Compares whitespace-separated tokens, optionally treating numeric tokens as equal when they
+ * are within an absolute or relative epsilon. Tokens are read into two reused buffers, so
+ * only the current pair of tokens is ever held in memory.
+ */
+class TokenChecker implements OutputChecker {
+
+    static final TokenChecker EXACT_TOKENS = new TokenChecker(-1);
+
+    private static final int SHOWN_TOKEN_CHARS = 32;
+    // what a program prints as a number; Double.parseDouble also takes "1d", "0x1p0" and "NaN"
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+
+    // negative when tokens must match exactly
+    private final double epsilon;
+
+    TokenChecker(double epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public Result check(Path input, Path expected, Reader actual) throws IOException {
+        try (Reader expectedReader = Files.newBufferedReader(expected, StandardCharsets.UTF_8)) {
+            return compare(new Tokens(expectedReader), actual);
+        }
+    }
+
+    private Result compare(Tokens want, Reader actual) throws IOException {
+        Tokens got = new Tokens(actual);
+        StringBuilder w = new StringBuilder();
+        StringBuilder g = new StringBuilder();
+        for (int index = 1; ; index++) {
+            boolean hasWant = want.next(w);
+            boolean hasGot = got.next(g);
+            if (!hasWant && !hasGot) return Result.ACCEPTED;
+            if (!hasWant) return Result.rejected("token " + index + ": unexpected extra output");
+            if (!hasGot) return Result.rejected("token " + index + ": output ended early");
+            if (!matches(w, g)) {
+                return Result.rejected("token " + index + ": expected '" + shown(w) + "', got '" + shown(g) + "'");
+            }
+        }
+    }
+
+    private boolean matches(StringBuilder want, StringBuilder got) {
+        if (want.compareTo(got) == 0) return true;
+        if (epsilon < 0) return false;
+        if (!DECIMAL.matcher(want).matches() || !DECIMAL.matcher(got).matches()) return false;
+        double expected = Double.parseDouble(want.toString());
+        double value = Double.parseDouble(got.toString());
+        double diff = Math.abs(expected - value);
+        return diff <= epsilon || diff <= epsilon * Math.abs(expected);
+    }
+
+    private static String shown(StringBuilder token) {
+        return token.length() <= SHOWN_TOKEN_CHARS ? token.toString() : token.substring(0, SHOWN_TOKEN_CHARS) + "...";
+    }
+
+    private static final class Tokens {
+        private final Reader in;
+        private final char[] buf = new char[8192];
+        private int pos;
+        private int len;
+
+        Tokens(Reader in) {
+            this.in = in;
+        }
+
+        boolean next(StringBuilder token) throws IOException {
+            token.setLength(0);
+            int c;
+            do {
+                c = read();
+            } while (c != -1 && Character.isWhitespace(c));
+            while (c != -1 && !Character.isWhitespace(c)) {
+                token.append((char) c);
+                c = read();
+            }
+            return !token.isEmpty();
+        }
+
+        private int read() throws IOException {
+            if (pos == len) {
+                len = in.read(buf, 0, buf.length);
+                pos = 0;
+                if (len <= 0) {
+                    len = 0;
+                    return -1;
+                }
+            }
+            return buf[pos++];
+        }
+    }
+}
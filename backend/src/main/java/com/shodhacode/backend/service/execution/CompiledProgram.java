@@ -0,0 +1,49 @@
+package com.shodhacode.backend.service.execution;
+
+import java.nio.file.Path;
+
+/**
+ * Result of compiling a submission. Local engines keep the build output in
+ * {@code artifactDir}; remote engines only carry the source along.
+ */
+public class CompiledProgram implements AutoCloseable {
+    private final Language language;
+    private final String sourceCode;
+    private final Path artifactDir;
+    private final boolean success;
+    private final String compileOutput;
+
+    public CompiledProgram(Language language, String sourceCode, Path artifactDir, boolean success,
+                           String compileOutput) {
+        this.language = language;
+        this.sourceCode = sourceCode;
+        this.artifactDir = artifactDir;
+        this.success = success;
+        this.compileOutput = compileOutput == null ? "" : compileOutput;
+    }
+
+    public Language getLanguage() {
+        return language;
+    }
+
+    public String getSourceCode() {
+        return sourceCode;
+    }
+
+    public Path getArtifactDir() {
+        return artifactDir;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getCompileOutput() {
+        return compileOutput;
+    }
+
+    @Override
+    public void close() {
+        if (artifactDir != null) Scratch.delete(artifactDir);
+    }
+}
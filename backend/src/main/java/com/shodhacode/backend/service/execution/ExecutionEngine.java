@@ -0,0 +1,22 @@
+package com.shodhacode.backend.service.execution;
+
+import java.nio.file.Path;
+
+/**
+ * Backend that compiles a submission once and then runs it against any number of inputs.
+ * The active implementation is selected with the {@code judge.engine} property.
+ */
+public interface ExecutionEngine {
+
+    /**
+     * Compiles the source. Failures are reported through {@link CompiledProgram#isSuccess()}
+     * rather than thrown; callers must close the returned program to release its artifact.
+     */
+    CompiledProgram compile(String language, String sourceCode) throws Exception;
+
+    /**
+     * Runs the program with standard input read from {@code stdin}, a file the engine must
+     * not modify.
+     */
+    ExecutionResult run(CompiledProgram program, Path stdin, ExecutionLimits limits) throws Exception;
+}
@@ -0,0 +1,28 @@
+package com.shodhacode.backend.service.execution;
+
+/**
+ * Resource limits for one program run: CPU time, wall-clock time and memory.
+ */
+public class ExecutionLimits {
+    private final long cpuTimeMs;
+    private final long wallTimeMs;
+    private final long memoryKb;
+
+    public ExecutionLimits(long cpuTimeMs, long wallTimeMs, long memoryKb) {
+        this.cpuTimeMs = cpuTimeMs;
+        this.wallTimeMs = wallTimeMs;
+        this.memoryKb = memoryKb;
+    }
+
+    public long getCpuTimeMs() {
+        return cpuTimeMs;
+    }
+
+    public long getWallTimeMs() {
+        return wallTimeMs;
+    }
+
+    public long getMemoryKb() {
+        return memoryKb;
+    }
+}
@@ -0,0 +1,110 @@
+package com.shodhacode.backend.service.execution;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Outcome of one program run as reported by an {@link ExecutionEngine}.
+ * <p>
+ * Standard output is either held in memory or left in a file that is read as a stream, so a
+ * large output is never copied into a string just to be compared. Callers must close the
+ * result to release that file.
+ */
+public class ExecutionResult implements AutoCloseable {
+
+    public enum Outcome {
+        OK,
+        COMPILATION_ERROR,
+        RUNTIME_ERROR,
+        TIME_LIMIT_EXCEEDED,
+        MEMORY_LIMIT_EXCEEDED
+    }
+
+    private final Outcome outcome;
+    private final String stdout;
+    private final Path stdoutFile;
+    private final Path scratchDir;
+    private final String stderr;
+    private final String compileOutput;
+    private final Integer exitCode;
+    private final ResourceUsage usage;
+
+    public ExecutionResult(Outcome outcome, String stdout, String stderr, String compileOutput, Integer exitCode,
+                           ResourceUsage usage) {
+        this(outcome, stdout == null ? "" : stdout, null, null, stderr, compileOutput, exitCode, usage);
+    }
+
+    private ExecutionResult(Outcome outcome, String stdout, Path stdoutFile, Path scratchDir, String stderr,
+                            String compileOutput, Integer exitCode, ResourceUsage usage) {
+        this.outcome = outcome;
+        this.stdout = stdout;
+        this.stdoutFile = stdoutFile;
+        this.scratchDir = scratchDir;
+        this.stderr = stderr == null ? "" : stderr;
+        this.compileOutput = compileOutput == null ? "" : compileOutput;
+        this.exitCode = exitCode;
+        this.usage = usage == null ? ResourceUsage.UNKNOWN : usage;
+    }
+
+    /**
+     * A result whose standard output stays in {@code stdoutFile}; {@code scratchDir} is
+     * deleted when the result is closed.
+     */
+    static ExecutionResult withOutputFile(Outcome outcome, Path stdoutFile, Path scratchDir, String stderr,
+                                          Integer exitCode, ResourceUsage usage) {
+        return new ExecutionResult(outcome, null, stdoutFile, scratchDir, stderr, "", exitCode, usage);
+    }
+
+    public static ExecutionResult compilationError(String compileOutput) {
+        return new ExecutionResult(Outcome.COMPILATION_ERROR, "", "", compileOutput, null, ResourceUsage.UNKNOWN);
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public Reader openStdout() throws IOException {
+        if (stdoutFile == null) return new StringReader(stdout);
+        return Files.newBufferedReader(stdoutFile, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The first {@code maxChars} characters of standard output, for logs and messages.
+     */
+    public String stdoutPreview(int maxChars) throws IOException {
+        if (stdoutFile == null) return stdout.length() <= maxChars ? stdout : stdout.substring(0, maxChars);
+        try (Reader in = openStdout()) {
+            char[] buf = new char[maxChars];
+            int n = 0;
+            for (int r; n < maxChars && (r = in.read(buf, n, maxChars - n)) > 0; ) {
+                n += r;
+            }
+            return new String(buf, 0, n);
+        }
+    }
+
+    public String getStderr() {
+        return stderr;
+    }
+
+    public String getCompileOutput() {
+        return compileOutput;
+    }
+
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    public ResourceUsage getUsage() {
+        return usage;
+    }
+
+    @Override
+    public void close() {
+        if (scratchDir != null) Scratch.delete(scratchDir);
+    }
+}
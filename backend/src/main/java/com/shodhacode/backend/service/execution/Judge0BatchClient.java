@@ -0,0 +1,141 @@
+package com.shodhacode.backend.service.execution;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces individual Judge0 runs into batch submissions and collects their results by
+ * polling tokens.
+ * <p>
+ * Runs offered within {@code lingerMs} of each other, whether from the same submission or from
+ * different ones, share one {@code POST /submissions/batch}. The tokens that come back are
+ * polled together with {@code GET /submissions/batch} until Judge0 reports a final status,
+ * so no connection is held open while a run waits in Judge0's queue.
+ */
+class Judge0BatchClient {
+
+    private static final int STATUS_PROCESSING = 2;
+
+    private final Judge0Client client;
+    private final int maxBatchSize;
+    private final long lingerMs;
+    private final long pollIntervalMs;
+
+    private final BlockingQueue<PendingRun> waiting = new LinkedBlockingQueue<>();
+    private final Map<String, PendingRun> inFlight = new ConcurrentHashMap<>();
+    private final Thread dispatcher;
+    private final Thread poller;
+
+    Judge0BatchClient(Judge0Client client, int maxBatchSize, long lingerMs, long pollIntervalMs) {
+        this.client = client;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMs = lingerMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.dispatcher = Thread.ofVirtual().name("judge0-batch-dispatcher").start(this::dispatchLoop);
+        this.poller = Thread.ofVirtual().name("judge0-batch-poller").start(this::pollLoop);
+    }
+
+    void shutdown() {
+        dispatcher.interrupt();
+        poller.interrupt();
+    }
+
+    /**
+     * Queues one submission body; the future completes with Judge0's result object.
+     * Cancelling the future stops polling for it.
+     */
+    CompletableFuture<Map<String, Object>> submit(Map<String, Object> body) {
+        PendingRun run = new PendingRun(body, new CompletableFuture<>());
+        waiting.add(run);
+        return run.result;
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingRun> batch = new ArrayList<>(maxBatchSize);
+            try {
+                batch.add(waiting.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatchSize) {
+                    PendingRun next = waiting.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                batch.forEach(run -> run.result.cancel(false));
+                return;
+            }
+            batch.removeIf(run -> run.result.isDone());
+            if (!batch.isEmpty()) postBatch(batch);
+        }
+    }
+
+    private void postBatch(List<PendingRun> batch) {
+        List<Map<String, Object>> submissions = batch.stream().map(run -> run.body).toList();
+        // sent asynchronously so the next batch can form while this one is on the wire
+        client.post("submissions.batch", "/submissions/batch?base64_encoded=true",
+                        Map.of("submissions", submissions), Judge0Client.LIST)
+                .whenComplete((tokens, error) -> {
+                    if (error == null && tokens.size() != batch.size())
+                        error = new IllegalStateException("Unexpected batch response from Judge0");
+                    if (error != null) {
+                        Throwable cause = error;
+                        batch.forEach(run -> run.result.completeExceptionally(cause));
+                        return;
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        Object token = tokens.get(i).get("token");
+                        if (token == null) {
+                            // per-item validation error, e.g. a limit above the server maximum
+                            batch.get(i).result.completeExceptionally(
+                                    new IllegalStateException("Judge0 rejected submission: " + tokens.get(i)));
+                        } else {
+                            inFlight.put((String) token, batch.get(i));
+                        }
+                    }
+                });
+    }
+
+    private void pollLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            inFlight.values().removeIf(run -> run.result.isDone());
+            List<String> tokens = new ArrayList<>(inFlight.keySet());
+            try {
+                for (int from = 0; from < tokens.size(); from += maxBatchSize) {
+                    poll(tokens.subList(from, Math.min(from + maxBatchSize, tokens.size())));
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void poll(List<String> tokens) throws InterruptedException {
+        Map<String, Object> body;
+        try {
+            body = client.get("submissions.batch.poll", "/submissions/batch?base64_encoded=true&fields="
+                    + Judge0Client.RESULT_FIELDS + "&tokens=" + String.join(",", tokens), Judge0Client.OBJECT).get();
+        } catch (ExecutionException e) {
+            // transient polling failures are retried on the next tick; runs time out on their own
+            return;
+        }
+        if (body == null || !(body.get("submissions") instanceof List<?> results)) return;
+
+        for (Object item : results) {
+            if (!(item instanceof Map<?, ?> result)) continue;
+            if (result.get("status") instanceof Map<?, ?> status && status.get("id") instanceof Number id
+                    && id.intValue() <= STATUS_PROCESSING) continue;
+            PendingRun run = inFlight.remove((String) result.get("token"));
+            if (run != null) run.result.complete((Map<String, Object>) result);
+        }
+    }
+
+    private record PendingRun(Map<String, Object> body, CompletableFuture<Map<String, Object>> result) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.shodhacode.backend.service.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * HTTP client for the Judge0 API on top of the JDK {@link HttpClient}.
+ * <p>
+ * Connections are kept alive and reused by the JDK pool; {@code maxConnections} bounds how
+ * many requests are on the wire at once. Each call runs on its own virtual thread, so
+ * cancelling the returned future interrupts it and aborts the exchange instead of leaving it
+ * running. Connect failures and 429/5xx responses are retried with jittered exponential
+ * backoff, honouring {@code Retry-After}. Every attempt is recorded in the
+ * {@code judge0.client.requests} timer, tagged by endpoint and status.
+ */
+class Judge0Client {
+
+    static final TypeReference<Map<String, Object>> OBJECT = new TypeReference<>() {};
+    static final TypeReference<List<Map<String, Object>>> LIST = new TypeReference<>() {};
+    static final String RESULT_FIELDS = "token,stdout,stderr,compile_output,status,exit_code,time,wall_time,memory";
+
+    private final HttpClient http;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final String baseUrl;
+    private final String apiKey;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore connections;
+    private final Duration requestTimeout;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxBackoffMs;
+
+    Judge0Client(String baseUrl, String apiKey, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                 int maxConnections, long connectTimeoutMs, long requestTimeoutMs, int maxAttempts,
+                 long retryBackoffMs, long maxBackoffMs) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.connections = new Semaphore(maxConnections, true);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        meterRegistry.gauge("judge0.client.connections.active", connections,
+                s -> maxConnections - s.availablePermits());
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+        http.shutdownNow();
+    }
+
+    <T> CompletableFuture<T> get(String endpoint, String pathAndQuery, TypeReference<T> type) {
+        return send(endpoint, request(pathAndQuery, requestTimeout).GET().build(), type);
+    }
+
+    <T> CompletableFuture<T> post(String endpoint, String pathAndQuery, Object body, TypeReference<T> type) {
+        return post(endpoint, pathAndQuery, body, requestTimeout, type);
+    }
+
+    <T> CompletableFuture<T> post(String endpoint, String pathAndQuery, Object body, Duration timeout,
+                                  TypeReference<T> type) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = request(pathAndQuery, timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build();
+        return send(endpoint, request, type);
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)).timeout(timeout);
+        if (!apiKey.isEmpty()) builder.header("X-RapidAPI-Key", apiKey);
+        return builder;
+    }
+
+    private <T> CompletableFuture<T> send(String endpoint, HttpRequest request, TypeReference<T> type) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> call = executor.submit(() -> {
+            try {
+                result.complete(execute(endpoint, request, type));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) call.cancel(true);
+        });
+        return result;
+    }
+
+    private <T> T execute(String endpoint, HttpRequest request, TypeReference<T> type) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<byte[]> response;
+            connections.acquire();
+            long start = System.nanoTime();
+            try {
+                response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                record(endpoint, request, String.valueOf(response.statusCode()), start);
+            } catch (ConnectException | HttpConnectTimeoutException e) {
+                // nothing reached Judge0, so the request is safe to repeat
+                record(endpoint, request, "CONNECT_ERROR", start);
+                if (attempt >= maxAttempts) throw e;
+                response = null;
+            } catch (InterruptedException e) {
+                record(endpoint, request, "CANCELLED", start);
+                throw e;
+            } catch (IOException e) {
+                record(endpoint, request, "IO_ERROR", start);
+                throw e;
+            } finally {
+                connections.release();
+            }
+
+            if (response == null) {
+                backoff(attempt, null);
+                continue;
+            }
+            int status = response.statusCode();
+            if (status >= 200 && status < 300) {
+                return objectMapper.readValue(response.body(), type);
+            }
+            if ((status == 429 || status >= 500) && attempt < maxAttempts) {
+                backoff(attempt, response.headers().firstValue("Retry-After").orElse(null));
+                continue;
+            }
+            throw new IllegalStateException("Judge0 returned HTTP " + status + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void backoff(int attempt, String retryAfter) throws InterruptedException {
+        long delayMs = -1;
+        if (retryAfter != null) {
+            try {
+                delayMs = Math.min(Long.parseLong(retryAfter.trim()) * 1000, maxBackoffMs);
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form; fall back to our own backoff
+            }
+        }
+        if (delayMs < 0) {
+            long ceiling = Math.min(maxBackoffMs, retryBackoffMs << Math.min(attempt - 1, 20));
+            delayMs = ThreadLocalRandom.current().nextLong(ceiling + 1); // full jitter
+        }
+        Thread.sleep(delayMs);
+    }
+
+    private void record(String endpoint, HttpRequest request, String status, long startNanos) {
+        Timer.builder("judge0.client.requests")
+                .description("Judge0 API request latency, one sample per attempt")
+                .tag("endpoint", endpoint)
+                .tag("method", request.method())
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,207 @@
+package com.shodhacode.backend.service.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs submissions on a Judge0 instance (self-hosted or the public CE).
+ * <p>
+ * Judge0 has no way to reuse a build between submissions, so "compiling" only binds the
+ * source to its language and every run ships the source again. Compilation errors still
+ * surface on the first run, which lets the judge stop before the remaining test cases.
+ * <p>
+ * In {@code single} mode every run is one synchronous {@code wait=true} request. In
+ * {@code batch} mode runs go through {@link Judge0BatchClient}, which sends them in batches
+ * and polls for the results. Both go through the pooled {@link Judge0Client}.
+ * <p>
+ * Judge0 rejects limits above its {@code MAX_CPU_TIME_LIMIT}, {@code MAX_WALL_TIME_LIMIT} and
+ * {@code MAX_MEMORY_LIMIT} outright, so limits are clamped to {@code judge.judge0.max-cpu-time-ms},
+ * {@code max-wall-time-ms} and {@code max-memory-kb}, which should match the server's settings.
+ */
+@Component
+@ConditionalOnProperty(name = "judge.engine", havingValue = "judge0", matchIfMissing = true)
+public class Judge0ExecutionEngine implements ExecutionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(Judge0ExecutionEngine.class);
+
+    private static final int STATUS_TIME_LIMIT_EXCEEDED = 5;
+    private static final int STATUS_COMPILATION_ERROR = 6;
+    private static final int STATUS_RUNTIME_ERROR_FIRST = 7;
+    private static final int STATUS_RUNTIME_ERROR_LAST = 12;
+
+    private final Judge0Client client;
+    private final Judge0BatchClient batchClient;
+    private final long maxCpuTimeMs;
+    private final long maxWallTimeMs;
+    private final long maxMemoryKb;
+    // limits already reported as clamped, so each one is logged once
+    private final Set<String> clamped = ConcurrentHashMap.newKeySet();
+
+    public Judge0ExecutionEngine(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${judge.judge0.base-url:https://ce.judge0.com}") String baseUrl,
+                                 @Value("${judge.judge0.api-key:}") String rapidApiKey,
+                                 @Value("${judge.judge0.mode:single}") String mode,
+                                 @Value("${judge.judge0.batch.max-size:20}") int maxBatchSize,
+                                 @Value("${judge.judge0.batch.linger-ms:50}") long lingerMs,
+                                 @Value("${judge.judge0.batch.poll-interval-ms:250}") long pollIntervalMs,
+                                 @Value("${judge.judge0.http.max-connections:64}") int maxConnections,
+                                 @Value("${judge.judge0.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                 @Value("${judge.judge0.http.request-timeout-ms:10000}") long requestTimeoutMs,
+                                 @Value("${judge.judge0.http.max-attempts:3}") int maxAttempts,
+                                 @Value("${judge.judge0.http.retry-backoff-ms:200}") long retryBackoffMs,
+                                 @Value("${judge.judge0.http.max-backoff-ms:5000}") long maxBackoffMs,
+                                 @Value("${judge.judge0.max-cpu-time-ms:15000}") long maxCpuTimeMs,
+                                 @Value("${judge.judge0.max-wall-time-ms:20000}") long maxWallTimeMs,
+                                 @Value("${judge.judge0.max-memory-kb:512000}") long maxMemoryKb) {
+        this.client = new Judge0Client(baseUrl, rapidApiKey, objectMapper, meterRegistry, maxConnections,
+                connectTimeoutMs, requestTimeoutMs, maxAttempts, retryBackoffMs, maxBackoffMs);
+        this.batchClient = "batch".equalsIgnoreCase(mode)
+                ? new Judge0BatchClient(client, maxBatchSize, lingerMs, pollIntervalMs)
+                : null;
+        this.maxCpuTimeMs = maxCpuTimeMs;
+        this.maxWallTimeMs = maxWallTimeMs;
+        this.maxMemoryKb = maxMemoryKb;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (batchClient != null) batchClient.shutdown();
+        client.shutdown();
+    }
+
+    @Override
+    public CompiledProgram compile(String language, String sourceCode) {
+        return new CompiledProgram(Language.fromName(language), sourceCode, null, true, "");
+    }
+
+    @Override
+    public ExecutionResult run(CompiledProgram program, Path stdin, ExecutionLimits limits) throws Exception {
+        Language lang = program.getLanguage();
+        String sourceCode = program.getSourceCode();
+
+        // Judge0 expects Base64 for source and stdin
+        String encodedSource = Base64.getEncoder().encodeToString(sourceCode.getBytes(StandardCharsets.UTF_8));
+        String encodedInput = encode(stdin);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("source_code", encodedSource);
+        body.put("language_id", lang.getJudge0Id());
+        body.put("stdin", encodedInput);
+        long wallTimeMs = clamp("wall time", limits.getWallTimeMs(), maxWallTimeMs, "ms");
+        body.put("cpu_time_limit", clamp("CPU time", limits.getCpuTimeMs(), maxCpuTimeMs, "ms") / 1000.0);
+        body.put("wall_time_limit", wallTimeMs / 1000.0);
+        body.put("memory_limit", memoryLimitKb(limits));
+
+        // Judge0 may queue the run before executing it, so allow some slack over the wall limit;
+        // missing this deadline is an infrastructure error, not a time limit verdict
+        long timeoutMs = wallTimeMs + 10_000;
+        CompletableFuture<Map<String, Object>> pending = batchClient != null
+                ? batchClient.submit(body)
+                : client.post("submissions", "/submissions?base64_encoded=true&wait=true&fields=" + Judge0Client.RESULT_FIELDS, body,
+                        Duration.ofMillis(timeoutMs), Judge0Client.OBJECT);
+        try {
+            return toResult(pending.get(timeoutMs, TimeUnit.MILLISECONDS), limits);
+        } catch (TimeoutException | InterruptedException e) {
+            // aborts the HTTP exchange (or stops polling for the token) rather than leaving it running
+            pending.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+    }
+
+    private long memoryLimitKb(ExecutionLimits limits) {
+        return clamp("memory", limits.getMemoryKb(), maxMemoryKb, "KB");
+    }
+
+    private long clamp(String limit, long requested, long max, String unit) {
+        if (requested <= max) return requested;
+        if (clamped.add(limit + requested))
+            log.warn("{} limit of {} {} is above Judge0's maximum, running with {} {}", limit, requested, unit, max,
+                    unit);
+        return max;
+    }
+
+    /**
+     * Judge0 takes stdin inline in the request, so the file has to become a Base64 string; it
+     * is mapped rather than read so that the raw bytes never get a heap copy of their own.
+     */
+    static String encode(Path stdin) throws IOException {
+        try (FileChannel channel = FileChannel.open(stdin, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer encoded = Base64.getEncoder().encode(data);
+            return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ExecutionResult toResult(Map<String, Object> result, ExecutionLimits limits) {
+        String stdout = decodeBase64((String) result.get("stdout"));
+        String stderr = decodeBase64((String) result.get("stderr"));
+        String compileOutput = decodeBase64((String) result.get("compile_output"));
+        Integer exitCode = result.get("exit_code") instanceof Number n ? n.intValue() : null;
+        // times come back as seconds in strings ("0.012"), memory as KB
+        ResourceUsage usage = new ResourceUsage(millis(result.get("wall_time")), millis(result.get("time")),
+                result.get("memory") instanceof Number m ? m.longValue() : null);
+
+        int statusId = 0;
+        if (result.get("status") instanceof Map<?, ?> status && status.get("id") instanceof Number n) {
+            statusId = n.intValue();
+        }
+
+        ExecutionResult.Outcome outcome;
+        if (statusId == STATUS_COMPILATION_ERROR) {
+            outcome = ExecutionResult.Outcome.COMPILATION_ERROR;
+        } else if (statusId == STATUS_TIME_LIMIT_EXCEEDED) {
+            outcome = ExecutionResult.Outcome.TIME_LIMIT_EXCEEDED;
+        } else if (statusId >= STATUS_RUNTIME_ERROR_FIRST && statusId <= STATUS_RUNTIME_ERROR_LAST) {
+            // Judge0 reports a run killed for memory as a runtime error; its peak tells them apart
+            outcome = usage.peakMemoryKb() != null && usage.peakMemoryKb() >= memoryLimitKb(limits)
+                    ? ExecutionResult.Outcome.MEMORY_LIMIT_EXCEEDED
+                    : ExecutionResult.Outcome.RUNTIME_ERROR;
+        } else if (statusId > STATUS_RUNTIME_ERROR_LAST) {
+            Object description = ((Map<String, Object>) result.get("status")).get("description");
+            throw new IllegalStateException("Judge0 failed: " + description);
+        } else {
+            outcome = ExecutionResult.Outcome.OK;
+        }
+        return new ExecutionResult(outcome, stdout, stderr, compileOutput, exitCode, usage);
+    }
+
+    private static Long millis(Object seconds) {
+        if (seconds == null) return null;
+        try {
+            return Math.round(Double.parseDouble(seconds.toString()) * 1000);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String decodeBase64(String encoded) {
+        if (encoded == null || encoded.isEmpty()) return "";
+        try {
+            return new String(Base64.getMimeDecoder().decode(encoded), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return encoded; // fallback if not base64
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.shodhacode.backend.service.execution;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Languages accepted by the judge, with their Judge0 ids and local toolchain commands.
+ */
+public enum Language {
+    JAVA(62, "Main.java", List.of("javac", "-J-Xmx512m", "-encoding", "UTF-8", "-d", ".", "Main.java")),
+    PYTHON(71, "main.py", null),
+    CPP(54, "main.cpp", List.of("g++", "-O2", "-std=c++17", "-o", "main", "main.cpp")),
+    C(50, "main.c", List.of("gcc", "-O2", "-std=c11", "-o", "main", "main.c", "-lm"));
+
+    private final int judge0Id;
+    private final String sourceFile;
+    private final List<String> compileCommand;
+
+    Language(int judge0Id, String sourceFile, List<String> compileCommand) {
+        this.judge0Id = judge0Id;
+        this.sourceFile = sourceFile;
+        this.compileCommand = compileCommand;
+    }
+
+    public static Language fromName(String name) {
+        if (name == null) return JAVA;
+        return switch (name.toLowerCase()) {
+            case "python", "python3" -> PYTHON;
+            case "cpp", "c++" -> CPP;
+            case "c" -> C;
+            default -> JAVA;
+        };
+    }
+
+    public int getJudge0Id() {
+        return judge0Id;
+    }
+
+    public String getSourceFile() {
+        return sourceFile;
+    }
+
+    public boolean isCompiled() {
+        return compileCommand != null;
+    }
+
+    public List<String> getCompileCommand() {
+        return compileCommand;
+    }
+
+    /**
+     * Command that runs the program built in {@code artifactDir}. The JVM enforces its own
+     * heap limit, the other runtimes are capped by the address-space rlimit set by the engine.
+     */
+    public List<String> runCommand(Path artifactDir, long memoryKb) {
+        return switch (this) {
+            case JAVA -> {
+                List<String> command = new ArrayList<>(jvmCommand(memoryKb));
+                command.addAll(List.of("-cp", artifactDir.toString(), "Main"));
+                yield command;
+            }
+            case PYTHON -> List.of("python3", artifactDir.resolve(sourceFile).toString());
+            case CPP, C -> List.of(artifactDir.resolve("main").toString());
+        };
+    }
+
+    /**
+     * {@code java} with the options every submission runs under, up to the class path.
+     */
+    static List<String> jvmCommand(long memoryKb) {
+        return List.of("java", "-Xmx" + Math.max(memoryKb / 1024, 16) + "m", "-Xss64m", "-XX:+UseSerialGC");
+    }
+
+    public boolean limitsAddressSpace() {
+        return this != JAVA;
+    }
+}
@@ -0,0 +1,264 @@
+package com.shodhacode.backend.service.execution;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles and runs submissions as child processes of the judge host.
+ * <p>
+ * A submission is built once into a scratch directory that all of its test runs share;
+ * every run then gets its own working directory and is started through {@code bash} so that
+ * CPU time, address space, output size and process count can be capped with rlimits before
+ * the program is exec'd. Wall-clock time is enforced here by killing the process tree.
+ * <p>
+ * Rlimits are not isolation: without a sandbox, programs run as the judge's own user with
+ * its file system and network access. Configure a sandbox command (for example an nsjail or
+ * bwrap invocation) as a prefix for anything but trusted code. The process limit counts every
+ * process and thread of that user, the judge's included, and does not apply to root.
+ * <p>
+ * Java and Python runs take a pre-started runtime from a {@link WarmRuntimePool} when one is
+ * ready, which skips JVM and interpreter start-up on every test.
+ */
+@Component
+@ConditionalOnProperty(name = "judge.engine", havingValue = "local")
+public class LocalExecutionEngine implements ExecutionEngine {
+
+    private static final ExecutionLimits COMPILE_LIMITS = new ExecutionLimits(30_000, 60_000, 1024 * 1024);
+    private static final long OUTPUT_LIMIT_KB = 64 * 1024;
+    // stderr and compiler output are only read for messages and crash classification
+    private static final int MAX_MESSAGE_BYTES = 64 * 1024;
+    private static final int EXIT_SIGXCPU = 128 + 24;
+    private static final int EXIT_SIGKILL = 128 + 9;
+
+    private final Path workRoot;
+    private final List<String> sandboxPrefix;
+    private final int maxProcesses;
+    private final WarmRuntimePool warmPool;
+
+    public LocalExecutionEngine(@Value("${judge.local.work-dir:${java.io.tmpdir}/judge}") String workDir,
+                                @Value("${judge.local.sandbox-command:}") String sandboxCommand,
+                                @Value("${judge.local.max-processes:1024}") int maxProcesses,
+                                @Value("${judge.local.warm-pool.size:2}") int warmPoolSize,
+                                @Value("${judge.local.warm-pool.max-runtimes:8}") int warmPoolMaxRuntimes,
+                                @Value("${judge.local.warm-pool.idle-timeout-ms:120000}") long warmPoolIdleTimeoutMs,
+                                @Value("${judge.local.warm-pool.languages:java,python}") String warmLanguages)
+            throws IOException {
+        this.workRoot = Files.createDirectories(Path.of(workDir));
+        this.sandboxPrefix = sandboxCommand.isBlank() ? List.of() : Arrays.asList(sandboxCommand.trim().split("\\s+"));
+        this.maxProcesses = maxProcesses;
+        Set<Language> languages = EnumSet.noneOf(Language.class);
+        for (String name : warmLanguages.split(",")) {
+            if (!name.isBlank()) languages.add(Language.valueOf(name.trim().toUpperCase()));
+        }
+        this.warmPool = warmPoolSize > 0 && !languages.isEmpty()
+                ? new WarmRuntimePool(workRoot, warmPoolSize, warmPoolMaxRuntimes, warmPoolIdleTimeoutMs, languages,
+                this::prepare)
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (warmPool != null) warmPool.shutdown();
+    }
+
+    @Override
+    public CompiledProgram compile(String language, String sourceCode) throws Exception {
+        Language lang = Language.fromName(language);
+        Path dir = Files.createTempDirectory(workRoot, "build-");
+        try {
+            Files.writeString(dir.resolve(lang.getSourceFile()), sourceCode);
+            if (!lang.isCompiled()) {
+                return new CompiledProgram(lang, sourceCode, dir, true, "");
+            }
+
+            Path logs = Files.createTempDirectory(workRoot, "compile-");
+            try {
+                ProcessRun compile = run(dir, logs, lang.getCompileCommand(), null, COMPILE_LIMITS,
+                        lang.limitsAddressSpace());
+                boolean success = !compile.timedOut && compile.exitCode == 0;
+                String output = compile.timedOut ? "Compilation timed out"
+                        : compile.stderr + readCapped(compile.stdout, MAX_MESSAGE_BYTES);
+                return new CompiledProgram(lang, sourceCode, dir, success, output);
+            } finally {
+                Scratch.delete(logs);
+            }
+        } catch (Exception e) {
+            Scratch.delete(dir);
+            throw e;
+        }
+    }
+
+    /**
+     * Standard input is redirected from the given file as is, and standard output is left in
+     * the run directory and streamed from there by the checker; the directory goes away when
+     * the result is closed. A warm runtime from the pool is used when one is ready, and the
+     * run starts cold if that runtime dies before it gets the program.
+     */
+    @Override
+    public ExecutionResult run(CompiledProgram program, Path stdin, ExecutionLimits limits) throws Exception {
+        Language lang = program.getLanguage();
+        WarmRuntimePool.Warm warm = warmPool == null ? null : warmPool.take(lang, limits);
+        if (warm != null) {
+            try {
+                ProcessRun run = runWarm(warm, program, stdin, limits);
+                if (run != null) return result(run, warm.dir(), lang, limits);
+            } catch (Exception e) {
+                warm.process().destroyForcibly();
+                Scratch.delete(warm.dir());
+                throw e;
+            }
+            Scratch.delete(warm.dir());
+        }
+        Path dir = Files.createTempDirectory(workRoot, "run-");
+        try {
+            ProcessRun run = run(dir, dir, lang.runCommand(program.getArtifactDir(), limits.getMemoryKb()), stdin,
+                    limits, lang.limitsAddressSpace());
+            return result(run, dir, lang, limits);
+        } catch (Exception e) {
+            Scratch.delete(dir);
+            throw e;
+        }
+    }
+
+    private ExecutionResult result(ProcessRun run, Path dir, Language lang, ExecutionLimits limits) {
+        return ExecutionResult.withOutputFile(classify(run, lang, limits), run.stdout, dir, run.stderr, run.exitCode,
+                run.usage);
+    }
+
+    private ExecutionResult.Outcome classify(ProcessRun run, Language lang, ExecutionLimits limits) {
+        if (run.timedOut)
+            return ExecutionResult.Outcome.TIME_LIMIT_EXCEEDED;
+        // a run killed for memory looks like a crash or a kill; the sampled peak tells them apart.
+        // A JVM's resident set is its heap limit plus metaspace, code cache and stacks, so a JVM
+        // that exits cleanly kept to its heap whatever its peak was
+        Long peakKb = run.usage.peakMemoryKb();
+        boolean peakCounts = lang.limitsAddressSpace() || run.exitCode != 0;
+        if (peakCounts && peakKb != null && peakKb >= limits.getMemoryKb())
+            return ExecutionResult.Outcome.MEMORY_LIMIT_EXCEEDED;
+        if (run.exitCode == EXIT_SIGXCPU || run.exitCode == EXIT_SIGKILL)
+            return ExecutionResult.Outcome.TIME_LIMIT_EXCEEDED;
+        // the CPU rlimit has whole-second granularity; the measured time holds the exact limit
+        Long cpuMs = run.usage.cpuTimeMs();
+        if (cpuMs != null && cpuMs > limits.getCpuTimeMs())
+            return ExecutionResult.Outcome.TIME_LIMIT_EXCEEDED;
+        if (run.stderr.contains("java.lang.OutOfMemoryError") || run.stderr.contains("MemoryError")
+                || run.stderr.contains("std::bad_alloc"))
+            return ExecutionResult.Outcome.MEMORY_LIMIT_EXCEEDED;
+        if (run.exitCode != 0)
+            return ExecutionResult.Outcome.RUNTIME_ERROR;
+        return ExecutionResult.Outcome.OK;
+    }
+
+    private ProcessRun run(Path dir, Path logDir, List<String> command, Path stdin, ExecutionLimits limits,
+                           boolean limitAddressSpace)
+            throws IOException, InterruptedException {
+        Path stdout = logDir.resolve("stdout.txt");
+        Path stderr = logDir.resolve("stderr.txt");
+        ProcessBuilder pb = prepare(dir, command, limits, 0, limitAddressSpace)
+                .redirectOutput(stdout.toFile())
+                .redirectError(stderr.toFile());
+        if (stdin != null) {
+            pb.redirectInput(stdin.toFile());
+        } else {
+            pb.redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")));
+        }
+
+        long start = System.nanoTime();
+        Process process = pb.start();
+        return await(process, ProcessSampler.start(process), start, stdout, stderr, limits);
+    }
+
+    /**
+     * Returns null when the warm runtime could not be handed the program.
+     */
+    private ProcessRun runWarm(WarmRuntimePool.Warm warm, CompiledProgram program, Path stdin,
+                               ExecutionLimits limits) throws IOException, InterruptedException {
+        Path stdout = warm.dir().resolve("stdout.txt");
+        Path stderr = warm.dir().resolve("stderr.txt");
+        Path artifact = program.getLanguage() == Language.PYTHON
+                ? program.getArtifactDir().resolve(program.getLanguage().getSourceFile())
+                : program.getArtifactDir();
+        // sampling starts first so that the runtime's start-up is not charged to the program
+        ProcessSampler sampler = ProcessSampler.start(warm.process());
+        long start = System.nanoTime();
+        try {
+            warm.start(stdin, stdout, stderr, artifact);
+        } catch (IOException e) {
+            // the runtime is gone (broken pipe) and the program never ran; the caller goes cold
+            warm.process().destroyForcibly();
+            return null;
+        }
+        return await(warm.process(), sampler, start, stdout, stderr, limits);
+    }
+
+    /**
+     * Builds the {@code bash} wrapper that applies the rlimits of a run and then execs
+     * {@code command}, inside the sandbox command if one is configured.
+     */
+    private ProcessBuilder prepare(Path dir, List<String> command, ExecutionLimits limits, long extraCpuSeconds,
+                                   boolean limitAddressSpace) {
+        long cpuSeconds = Math.max(1, (limits.getCpuTimeMs() + 999) / 1000) + extraCpuSeconds;
+        StringBuilder script = new StringBuilder()
+                .append("ulimit -t ").append(cpuSeconds).append(" && ")
+                .append("ulimit -f ").append(OUTPUT_LIMIT_KB).append(" && ");
+        if (maxProcesses > 0) {
+            // keeps a fork bomb from exhausting the host's process table
+            script.append("ulimit -u ").append(maxProcesses).append(" && ");
+        }
+        if (limitAddressSpace) {
+            script.append("ulimit -v ").append(limits.getMemoryKb()).append(" && ");
+        }
+        script.append("exec \"$@\"");
+
+        List<String> argv = new ArrayList<>(sandboxPrefix);
+        argv.addAll(List.of("bash", "-c", script.toString(), "judge"));
+        argv.addAll(command);
+        return new ProcessBuilder(argv).directory(dir.toFile());
+    }
+
+    private ProcessRun await(Process process, ProcessSampler sampler, long startNanos, Path stdout, Path stderr,
+                             ExecutionLimits limits) throws IOException, InterruptedException {
+        boolean finished;
+        try {
+            finished = process.waitFor(limits.getWallTimeMs(), TimeUnit.MILLISECONDS);
+        } finally {
+            // also reached when the judging thread is interrupted
+            if (process.isAlive()) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+            }
+        }
+        if (!finished) {
+            process.waitFor();
+        }
+        ResourceUsage usage = sampler.stop(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        if (!Files.exists(stdout)) Files.createFile(stdout);
+        return new ProcessRun(!finished, process.exitValue(), stdout, readCapped(stderr, MAX_MESSAGE_BYTES), usage);
+    }
+
+    private static String readCapped(Path file, int maxBytes) throws IOException {
+        if (!Files.exists(file)) return "";
+        try (InputStream in = Files.newInputStream(file)) {
+            return new String(in.readNBytes(maxBytes), StandardCharsets.UTF_8);
+        }
+    }
+
+    private record ProcessRun(boolean timedOut, int exitCode, Path stdout, String stderr, ResourceUsage usage) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.shodhacode.backend.service.execution;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures CPU time and peak resident memory of a running process tree by sampling
+ * {@code /proc} on a virtual thread. CPU time is the sum over every process seen in the tree
+ * and memory the largest combined resident set seen at once, also never below any single
+ * process's own high-water mark. Whatever happens after the last sample is missed, so short
+ * runs read slightly low; on systems without {@code /proc} both figures are null.
+ * <p>
+ * CPU time already used when sampling starts is not counted, so a process that was started
+ * ahead of time and has just been handed its program is charged only for the program.
+ */
+final class ProcessSampler {
+
+    private static final long INTERVAL_MS = 10;
+    // USER_HZ, the unit of the times in /proc/<pid>/stat, is 100 on every Linux ABI
+    private static final long MS_PER_TICK = 10;
+    private static final boolean SUPPORTED = Files.isDirectory(Path.of("/proc/self"));
+
+    private final ProcessHandle root;
+    private final Map<Long, Long> cpuTicks = new HashMap<>();
+    private final long baselineTicks;
+    private long peakKb;
+    private boolean sampled;
+    private final Thread thread;
+
+    private ProcessSampler(ProcessHandle root) {
+        this.root = root;
+        if (SUPPORTED) {
+            sample();
+            this.baselineTicks = totalTicks();
+            this.thread = Thread.ofVirtual().name("proc-sampler-" + root.pid()).start(this::loop);
+        } else {
+            this.baselineTicks = 0;
+            this.thread = null;
+        }
+    }
+
+    static ProcessSampler start(Process process) {
+        return new ProcessSampler(process.toHandle());
+    }
+
+    /**
+     * Stops sampling and returns the totals; call once the process has exited.
+     */
+    ResourceUsage stop(long wallTimeMs) throws InterruptedException {
+        if (thread == null) return new ResourceUsage(wallTimeMs, null, null);
+        thread.interrupt();
+        thread.join();
+        synchronized (this) {
+            if (!sampled) return new ResourceUsage(wallTimeMs, null, null);
+            return new ResourceUsage(wallTimeMs, (totalTicks() - baselineTicks) * MS_PER_TICK, peakKb);
+        }
+    }
+
+    private synchronized long totalTicks() {
+        return cpuTicks.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private void loop() {
+        while (root.isAlive()) {
+            sample();
+            try {
+                Thread.sleep(INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void sample() {
+        List<ProcessHandle> tree = root.descendants().toList();
+        long rssKb = sample(root.pid());
+        for (ProcessHandle child : tree) {
+            rssKb += sample(child.pid());
+        }
+        synchronized (this) {
+            peakKb = Math.max(peakKb, rssKb);
+        }
+    }
+
+    // returns the current resident set of one process, recording its CPU time and high-water mark
+    private long sample(long pid) {
+        Path dir = Path.of("/proc", Long.toString(pid));
+        try {
+            String stat = Files.readString(dir.resolve("stat"));
+            // fields after the parenthesised command name, which may itself contain spaces
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]); // utime + stime
+            long rssKb = 0;
+            long hwmKb = 0;
+            for (String line : Files.readAllLines(dir.resolve("status"))) {
+                if (line.startsWith("VmRSS:")) rssKb = kilobytes(line);
+                else if (line.startsWith("VmHWM:")) hwmKb = kilobytes(line);
+            }
+            synchronized (this) {
+                cpuTicks.merge(pid, ticks, Math::max);
+                peakKb = Math.max(peakKb, hwmKb);
+                sampled = true;
+            }
+            return rssKb;
+        } catch (IOException | RuntimeException e) {
+            // the process exited between listing and reading
+            return 0;
+        }
+    }
+
+    private static long kilobytes(String line) {
+        return Long.parseLong(line.replaceAll("[^0-9]", ""));
+    }
+}
@@ -0,0 +1,9 @@
+package com.shodhacode.backend.service.execution;
+
+/**
+ * What one program run consumed. Each figure is null when the engine could not measure it.
+ */
+public record ResourceUsage(Long wallTimeMs, Long cpuTimeMs, Long peakMemoryKb) {
+
+    public static final ResourceUsage UNKNOWN = new ResourceUsage(null, null, null);
+}
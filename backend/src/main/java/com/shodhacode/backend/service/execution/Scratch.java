@@ -0,0 +1,24 @@
+package com.shodhacode.backend.service.execution;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Cleanup of per-build and per-run scratch directories.
+ */
+public final class Scratch {
+
+    private Scratch() {
+    }
+
+    public static void delete(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+            // scratch directories live under the work root and are safe to leave behind
+        }
+    }
+}
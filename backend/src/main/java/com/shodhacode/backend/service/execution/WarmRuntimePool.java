@@ -0,0 +1,358 @@
+package com.shodhacode.backend.service.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Runtimes started ahead of time so that a test run does not pay for JVM or interpreter
+ * start-up. Each warm process is started under the run's rlimits in its own run directory
+ * and then blocks reading one control line from its stdin: the paths of the test input, the
+ * output files and the program. It points its standard streams at those files and runs the
+ * program in place. A warm process serves exactly one run and is never reused, so runs stay
+ * as isolated as cold ones; every process taken is replaced in the background.
+ * <p>
+ * Python gets its standard streams swapped with {@code dup2}. The JVM cannot do that, so the
+ * launcher repoints {@link java.io.FileDescriptor#in}, {@code out} and {@code err} at the
+ * new files instead, which covers {@code System.in}/{@code out} as well as streams opened on
+ * the descriptors directly. JVMs share an AppCDS archive of the launcher's start-up classes,
+ * dumped once when the launcher is built, so that refilling the pool is cheaper too.
+ * <p>
+ * rlimits are fixed when a process starts, so there is a pool per language, memory limit
+ * and CPU limit. At most {@code maxRuntimes} processes are kept across all pools, and a pool
+ * nobody has taken from for {@code idleTimeoutMs} is shut down, so limits that are no longer
+ * in use do not keep runtimes alive. A run finding its pool empty simply starts cold, and so
+ * does one whose warm runtime died. Warm runtimes of a language that keep dying before use
+ * are not started again for a while, rather than respawning in a loop.
+ */
+final class WarmRuntimePool {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmRuntimePool.class);
+
+    /**
+     * Starts {@code command} in {@code dir} under the limits of a run, with
+     * {@code extraCpuSeconds} on top of the CPU rlimit.
+     */
+    interface Launcher {
+        ProcessBuilder prepare(Path dir, List<String> command, ExecutionLimits limits, long extraCpuSeconds,
+                               boolean limitAddressSpace);
+    }
+
+    /**
+     * A started runtime waiting for its program; owns {@code dir}, where it must write its output.
+     */
+    record Warm(Process process, Path dir) {
+        void start(Path stdin, Path stdout, Path stderr, Path program) throws IOException {
+            String line = String.join("\t", stdin.toString(), stdout.toString(), stderr.toString(),
+                    program.toString()) + "\n";
+            OutputStream control = process.getOutputStream();
+            control.write(line.getBytes(StandardCharsets.UTF_8));
+            control.close();
+        }
+    }
+
+    private record Key(Language language, long memoryKb, long cpuTimeMs) {
+    }
+
+    private static final class Pool {
+        final BlockingQueue<Warm> ready = new LinkedBlockingQueue<>();
+        final AtomicInteger starting = new AtomicInteger();
+        volatile long lastUsedNanos = System.nanoTime();
+        volatile boolean retired;
+    }
+
+    // the CPU rlimit also counts start-up, which a cold run would have paid too
+    private static final long WARM_UP_CPU_SECONDS = 2;
+    // runtimes of a language found dead in a row before warming it is paused
+    private static final int MAX_DEATHS_IN_A_ROW = 3;
+    private static final long PAUSE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final String PYTHON_BOOTSTRAP = """
+            import os, sys, runpy
+            import bisect, collections, functools, heapq, itertools, math, re
+            line = b""
+            while not line.endswith(b"\\n"):
+                chunk = os.read(0, 1)
+                if not chunk:
+                    sys.exit(0)
+                line += chunk
+            stdin, stdout, stderr, script = line.decode().rstrip("\\n").split("\\t")
+            for fd, path, flags in ((0, stdin, os.O_RDONLY),
+                                    (1, stdout, os.O_WRONLY | os.O_CREAT | os.O_TRUNC),
+                                    (2, stderr, os.O_WRONLY | os.O_CREAT | os.O_TRUNC)):
+                opened = os.open(path, flags, 0o644)
+                os.dup2(opened, fd)
+                os.close(opened)
+            sys.argv = [script]
+            sys.path[0] = os.path.dirname(script)
+            del line, chunk, stdin, stdout, stderr, fd, path, flags, opened
+            runpy.run_path(script, run_name="__main__")
+            """;
+
+    private static final String JAVA_LAUNCHER = """
+            import java.io.*;
+            import java.lang.reflect.*;
+            import java.net.*;
+            import java.nio.file.*;
+
+            public final class WarmLauncher {
+                // kept reachable so that their descriptors are not closed by a cleaner
+                private static FileInputStream in;
+                private static FileOutputStream out;
+                private static FileOutputStream err;
+
+                public static void main(String[] args) throws Throwable {
+                    String[] paths = readLine(new FileInputStream(FileDescriptor.in)).split("\\t");
+                    in = new FileInputStream(paths[0]);
+                    out = new FileOutputStream(paths[1]);
+                    err = new FileOutputStream(paths[2]);
+                    Field fd = FileDescriptor.class.getDeclaredField("fd");
+                    fd.setAccessible(true);
+                    fd.setInt(FileDescriptor.in, fd.getInt(in.getFD()));
+                    fd.setInt(FileDescriptor.out, fd.getInt(out.getFD()));
+                    fd.setInt(FileDescriptor.err, fd.getInt(err.getFD()));
+
+                    ClassLoader loader = new URLClassLoader(new URL[]{Path.of(paths[3]).toUri().toURL()},
+                            WarmLauncher.class.getClassLoader());
+                    Thread.currentThread().setContextClassLoader(loader);
+                    Method main = loader.loadClass("Main").getMethod("main", String[].class);
+                    main.setAccessible(true);
+                    try {
+                        main.invoke(null, (Object) new String[0]);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+
+                private static String readLine(InputStream control) throws IOException {
+                    ByteArrayOutputStream line = new ByteArrayOutputStream();
+                    for (int b; (b = control.read()) != '\\n'; ) {
+                        if (b < 0) System.exit(0);
+                        line.write(b);
+                    }
+                    return line.toString("UTF-8");
+                }
+            }
+            """;
+
+    private final Path workRoot;
+    private final int size;
+    private final int maxRuntimes;
+    private final long idleTimeoutNanos;
+    private final Launcher launcher;
+    private final Set<Language> languages;
+    private final Path javaLauncherJar;
+    private final Path javaArchive;
+    private final Map<Key, Pool> pools = new ConcurrentHashMap<>();
+    // warm processes ready or starting, across all pools
+    private final AtomicInteger runtimes = new AtomicInteger();
+    private final Map<Language, AtomicInteger> deathsInARow = new ConcurrentHashMap<>();
+    private final Map<Language, Long> pausedUntilNanos = new ConcurrentHashMap<>();
+    private final Thread reaper;
+    private volatile boolean closed;
+
+    WarmRuntimePool(Path workRoot, int size, int maxRuntimes, long idleTimeoutMs, Set<Language> languages,
+                    Launcher launcher) {
+        this.workRoot = workRoot;
+        this.size = size;
+        this.maxRuntimes = maxRuntimes;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.launcher = launcher;
+        Set<Language> enabled = languages.isEmpty() ? EnumSet.noneOf(Language.class) : EnumSet.copyOf(languages);
+        enabled.retainAll(EnumSet.of(Language.JAVA, Language.PYTHON));
+        this.javaLauncherJar = enabled.contains(Language.JAVA) ? buildJavaLauncher() : null;
+        this.javaArchive = javaLauncherJar == null ? null : dumpJavaArchive(javaLauncherJar);
+        if (javaLauncherJar == null) enabled.remove(Language.JAVA);
+        this.languages = ConcurrentHashMap.newKeySet();
+        this.languages.addAll(enabled);
+        this.reaper = Thread.ofVirtual().name("warm-runtime-reaper").start(this::reapLoop);
+    }
+
+    /**
+     * Takes a warm runtime for the language and limits, or returns null if there is none
+     * ready (the caller then runs cold). Every call tops the pool back up.
+     */
+    Warm take(Language language, ExecutionLimits limits) {
+        if (closed || !languages.contains(language) || paused(language)) return null;
+        Key key = new Key(language, limits.getMemoryKb(), limits.getCpuTimeMs());
+        // marked as used under the map's lock, so that the reaper cannot retire it in between
+        Pool pool = pools.compute(key, (k, existing) -> {
+            Pool used = existing != null ? existing : new Pool();
+            used.lastUsedNanos = System.nanoTime();
+            return used;
+        });
+        Warm warm;
+        while ((warm = pool.ready.poll()) != null) {
+            runtimes.decrementAndGet();
+            if (warm.process().isAlive()) break;
+            Scratch.delete(warm.dir());
+            died(language, warm);
+        }
+        if (warm != null) deathsInARow.computeIfAbsent(language, l -> new AtomicInteger()).set(0);
+        while (!paused(language) && pool.ready.size() + pool.starting.get() < size && reserve()) {
+            pool.starting.incrementAndGet();
+            Thread.ofVirtual().name("warm-runtime-spawn").start(() -> spawn(key, limits, pool));
+        }
+        return warm;
+    }
+
+    void shutdown() {
+        closed = true;
+        reaper.interrupt();
+        pools.values().forEach(this::drain);
+    }
+
+    private boolean paused(Language language) {
+        Long until = pausedUntilNanos.get(language);
+        return until != null && System.nanoTime() - until < 0;
+    }
+
+    private void died(Language language, Warm warm) {
+        int deaths = deathsInARow.computeIfAbsent(language, l -> new AtomicInteger()).incrementAndGet();
+        if (deaths < MAX_DEATHS_IN_A_ROW) return;
+        deathsInARow.get(language).set(0);
+        pausedUntilNanos.put(language, System.nanoTime() + PAUSE_NANOS);
+        log.warn("Warm {} runtimes keep exiting before use (last status {}); {} submissions start cold for {} min",
+                language, warm.process().exitValue(), language, TimeUnit.NANOSECONDS.toMinutes(PAUSE_NANOS));
+    }
+
+    // claims room for one more runtime under maxRuntimes
+    private boolean reserve() {
+        int current;
+        do {
+            current = runtimes.get();
+            if (current >= maxRuntimes) return false;
+        } while (!runtimes.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void drain(Pool pool) {
+        for (Warm warm; (warm = pool.ready.poll()) != null; ) {
+            runtimes.decrementAndGet();
+            warm.process().destroyForcibly();
+            Scratch.delete(warm.dir());
+        }
+    }
+
+    private void reapLoop() {
+        long intervalMs = Math.max(1000, TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) / 2);
+        while (!closed) {
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.nanoTime();
+            for (Key key : List.copyOf(pools.keySet())) {
+                Pool[] retired = new Pool[1];
+                pools.computeIfPresent(key, (k, pool) -> {
+                    if (now - pool.lastUsedNanos < idleTimeoutNanos) return pool;
+                    pool.retired = true;
+                    retired[0] = pool;
+                    return null;
+                });
+                if (retired[0] != null) drain(retired[0]);
+            }
+        }
+    }
+
+    private void spawn(Key key, ExecutionLimits limits, Pool pool) {
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory(workRoot, "run-");
+            Process process = launcher.prepare(dir, command(key), limits, WARM_UP_CPU_SECONDS,
+                            key.language().limitsAddressSpace())
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            pool.ready.add(new Warm(process, dir));
+            // shutdown or the reaper may have drained the pool while this one was starting
+            if (closed || pool.retired) drain(pool);
+        } catch (IOException e) {
+            runtimes.decrementAndGet();
+            log.warn("Could not start a warm {} runtime: {}", key.language(), e.getMessage());
+            if (dir != null) Scratch.delete(dir);
+        } finally {
+            pool.starting.decrementAndGet();
+        }
+    }
+
+    private List<String> command(Key key) {
+        if (key.language() == Language.PYTHON) return List.of("python3", "-c", PYTHON_BOOTSTRAP);
+        List<String> command = new ArrayList<>(Language.jvmCommand(key.memoryKb()));
+        if (javaArchive != null) command.add("-XX:SharedArchiveFile=" + javaArchive);
+        command.addAll(List.of("--add-opens", "java.base/java.io=ALL-UNNAMED",
+                "-cp", javaLauncherJar.toString(), "WarmLauncher"));
+        return command;
+    }
+
+    // CDS only accepts jars on the class path, so the compiled launcher is packed into one
+    private Path buildJavaLauncher() {
+        try {
+            Path dir = Files.createDirectories(workRoot.resolve("warm-launcher"));
+            Path classes = Files.createDirectories(dir.resolve("classes"));
+            Path source = Files.writeString(dir.resolve("WarmLauncher.java"), JAVA_LAUNCHER);
+            Process javac = new ProcessBuilder("javac", "-d", classes.toString(), source.toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (javac.waitFor(60, TimeUnit.SECONDS) && javac.exitValue() == 0) {
+                Path jar = dir.resolve("launcher.jar");
+                try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                    out.putNextEntry(new JarEntry("WarmLauncher.class"));
+                    Files.copy(classes.resolve("WarmLauncher.class"), out);
+                    out.closeEntry();
+                }
+                return jar;
+            }
+            javac.destroyForcibly();
+        } catch (IOException e) {
+            // fall through: Java runs cold
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Could not build the warm JVM launcher; Java submissions will start cold");
+        return null;
+    }
+
+    // runs the launcher once with no control line, which makes it exit right after start-up
+    private static Path dumpJavaArchive(Path launcherJar) {
+        Path archive = launcherJar.resolveSibling("launcher.jsa");
+        try {
+            List<String> command = new ArrayList<>(Language.jvmCommand(256 * 1024));
+            command.addAll(List.of("-XX:ArchiveClassesAtExit=" + archive, "-cp", launcherJar.toString(),
+                    "WarmLauncher"));
+            Process java = new ProcessBuilder(command)
+                    .redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (java.waitFor(60, TimeUnit.SECONDS) && java.exitValue() == 0 && Files.isRegularFile(archive))
+                return archive;
+            java.destroyForcibly();
+        } catch (IOException e) {
+            // the archive only shortens start-up; run without it
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -1,51 +1,84 @@
 package com.shodhacode.backend.web;
 
-import com.shodhacode.backend.model.Contest;
-import com.shodhacode.backend.model.Submission;
 import com.shodhacode.backend.repo.ContestRepository;
-import com.shodhacode.backend.repo.SubmissionRepository;
+import com.shodhacode.backend.service.ContestCatalog;
+import com.shodhacode.backend.service.ContestLeaderboard;
+import com.shodhacode.backend.service.LeaderboardService;
+import com.shodhacode.backend.web.dto.ContestView;
+import com.shodhacode.backend.web.dto.LeaderboardEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/contests")
 public class ContestController {
+    private static final int MAX_PAGE_SIZE = 500;
+    // the last leaderboard delta a page includes; later deltas apply on top of it
+    private static final String SEQUENCE_HEADER = "X-Leaderboard-Sequence";
+
     @Autowired
     private ContestRepository contestRepository;
     @Autowired
-    private SubmissionRepository submissionRepository;
+    private LeaderboardService leaderboardService;
+    @Autowired
+    private ContestCatalog contestCatalog;
 
+    /**
+     * The contest page from the catalog. Clients revalidate with If-None-Match and get 304
+     * while the contest and its problems are unchanged.
+     */
     @GetMapping("/{contestId}")
-    public ResponseEntity<Contest> getContest(@PathVariable Long contestId) {
-        return contestRepository.findById(contestId).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ContestView> getContest(@PathVariable Long contestId, WebRequest request) {
+        Optional<ContestCatalog.ContestSnapshot> snapshot = contestCatalog.contest(contestId);
+        if (snapshot.isEmpty())
+            return ResponseEntity.notFound().build();
+        String etag = snapshot.get().etag();
+        if (request.checkNotModified(etag))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(snapshot.get().view());
     }
 
     @GetMapping("/{contestId}/leaderboard")
-    public ResponseEntity<List<Map<String, Object>>> leaderboard(@PathVariable Long contestId) {
-        // simple leaderboard: number of accepted submissions per user
-        List<Submission> subs = submissionRepository.findAll();
-        Map<String, Long> acceptedCount = subs.stream()
-                .filter(s -> s.getContest() != null && Objects.equals(s.getContest().getId(), contestId))
-                .filter(s -> s.getStatus() != null && s.getStatus().name().equals("ACCEPTED"))
-                .collect(Collectors.groupingBy(Submission::getUsername, Collectors.counting()));
-
-        List<Map<String, Object>> board = acceptedCount.entrySet().stream()
-                .map(e -> {
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("username", e.getKey());
-                    m.put("score", e.getValue());
-                    return m;
-                })
-                .sorted((a, b) -> Long.compare(((Long) b.get("score")), ((Long) a.get("score"))))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(board);
+    public ResponseEntity<List<LeaderboardEntry>> leaderboard(@PathVariable Long contestId,
+                                                              @RequestParam(defaultValue = "0") int offset,
+                                                              @RequestParam(defaultValue = "100") int limit) {
+        if (offset < 0 || limit < 1)
+            return ResponseEntity.badRequest().build();
+        ContestLeaderboard.Page page = leaderboardService.page(contestId, offset, Math.min(limit, MAX_PAGE_SIZE));
+        List<ContestLeaderboard.Standing> standings = page.standings();
+
+        List<LeaderboardEntry> board = new ArrayList<>(standings.size());
+        for (int i = 0; i < standings.size(); i++) {
+            ContestLeaderboard.Standing s = standings.get(i);
+            board.add(new LeaderboardEntry(offset + i + 1, s.username(), s.score(), s.penalty()));
+        }
+        return ResponseEntity.ok().header(SEQUENCE_HEADER, Long.toString(page.sequence())).body(board);
+    }
+
+    /**
+     * Streams leaderboard changes as server-sent "delta" events. Clients fetch the board
+     * once and merge each delta into it; a stream refused with 503 means keep polling.
+     */
+    @GetMapping(path = "/{contestId}/leaderboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> leaderboardStream(@PathVariable Long contestId) {
+        if (!contestRepository.existsById(contestId))
+            return ResponseEntity.notFound().build();
+        SseEmitter emitter = leaderboardService.subscribe(contestId);
+        if (emitter == null)
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        return ResponseEntity.ok(emitter);
     }
 }
@@ -2,30 +2,56 @@ package com.shodhacode.backend.web;
 
 import com.shodhacode.backend.model.*;
 import com.shodhacode.backend.repo.ContestRepository;
-import com.shodhacode.backend.repo.ProblemRepository;
 import com.shodhacode.backend.repo.SubmissionRepository;
+import com.shodhacode.backend.repo.TestResultRepository;
 import com.shodhacode.backend.repo.UserRepository;
+import com.shodhacode.backend.service.ContestCatalog;
 import com.shodhacode.backend.service.JudgeService;
+import com.shodhacode.backend.service.SubmissionEvent;
+import com.shodhacode.backend.service.SubmissionEventService;
+import com.shodhacode.backend.service.TraceIds;
+import com.shodhacode.backend.web.dto.SubmissionDetails;
+import com.shodhacode.backend.web.dto.SubmissionPage;
 import com.shodhacode.backend.web.dto.SubmissionRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 @RestController
 @RequestMapping("/api/submissions")
 public class SubmissionController {
+    private static final Logger log = LoggerFactory.getLogger(SubmissionController.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    // first-page cursor: later than any stored submission
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
     @Autowired
     private SubmissionRepository submissionRepository;
     @Autowired
+    private TestResultRepository testResultRepository;
+    @Autowired
     private ContestRepository contestRepository;
     @Autowired
-    private ProblemRepository problemRepository;
+    private ContestCatalog contestCatalog;
     @Autowired
     private UserRepository userRepository;
     @Autowired
     private JudgeService judgeService;
+    @Autowired
+    private SubmissionEventService submissionEventService;
 
     @PostMapping
     public ResponseEntity<?> createSubmission(@RequestBody SubmissionRequest req) {
@@ -41,10 +67,10 @@ public class SubmissionController {
             if (req.getCode() == null || req.getCode().isBlank())
                 return ResponseEntity.badRequest().body("code is required");
 
-            Optional<Contest> contest = contestRepository.findById(req.getContestId());
-            if (contest.isEmpty())
+            // both come from the catalog; the contest is only referenced by id
+            if (contestCatalog.contest(req.getContestId()).isEmpty())
                 return ResponseEntity.badRequest().body("Contest not found");
-            Optional<Problem> problem = problemRepository.findById(req.getProblemId());
+            Optional<Problem> problem = contestCatalog.problem(req.getProblemId());
             if (problem.isEmpty())
                 return ResponseEntity.badRequest().body("Problem not found");
 
@@ -52,27 +78,130 @@ public class SubmissionController {
                     .orElseGet(() -> userRepository.save(new User(req.getUsername())));
 
             Submission s = new Submission();
-            s.setContest(contest.get());
+            s.setContest(contestRepository.getReferenceById(req.getContestId()));
             s.setProblem(problem.get());
             s.setUsername(user.getUsername());
             s.setCode(req.getCode());
             s.setLanguage(req.getLanguage());
+            // the judge logs under the same trace id as this request
+            s.setTraceId(TraceIds.current());
 
-            Submission saved = submissionRepository.save(s);
-            // submit to judge async
-            judgeService.submitForJudging(saved);
+            // stored and queued for async judging, unless the judge queue is full
+            OptionalInt position = judgeService.submitForJudging(s);
+            if (position.isEmpty())
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .body("Judge queue is full, please retry shortly");
 
-            return ResponseEntity.ok().body(saved.getId());
+            log.debug("Accepted submission {} for problem {} at queue position {}", s.getId(),
+                    req.getProblemId(), position.getAsInt());
+            return ResponseEntity.ok()
+                    .header("X-Queue-Position", String.valueOf(position.getAsInt()))
+                    .body(s.getId());
         } catch (Exception ex) {
-            // log stack trace to stderr for debugging
-            ex.printStackTrace();
+            log.error("Failed to accept a submission", ex);
             return ResponseEntity.status(500).body("Internal server error: " + ex.getMessage());
         }
     }
 
+    /**
+     * A user's submissions in a contest, newest first. Pages are keyset-based: pass the
+     * previous page's {@code nextCursor} as {@code cursor}.
+     */
+    @GetMapping(params = {"contestId", "username"})
+    public ResponseEntity<SubmissionPage> userHistory(@RequestParam Long contestId, @RequestParam String username,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        Cursor before = Cursor.parse(cursor);
+        if (before == null || limit < 1)
+            return ResponseEntity.badRequest().build();
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+        return ResponseEntity.ok(page(submissionRepository.findByContestAndUserBefore(contestId, username,
+                before.createdAt(), before.id(), Limit.of(size + 1)), size));
+    }
+
+    /**
+     * Recent submissions for a problem, newest first, paged like {@link #userHistory}.
+     */
+    @GetMapping(params = "problemId")
+    public ResponseEntity<SubmissionPage> problemHistory(@RequestParam Long problemId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        Cursor before = Cursor.parse(cursor);
+        if (before == null || limit < 1)
+            return ResponseEntity.badRequest().build();
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+        return ResponseEntity.ok(page(submissionRepository.findByProblemBefore(problemId,
+                before.createdAt(), before.id(), Limit.of(size + 1)), size));
+    }
+
+    /**
+     * Streams status transitions of a submission as server-sent events until its verdict.
+     * When too many streams are open the client gets 503 and should poll instead.
+     */
+    @GetMapping(path = "/{submissionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSubmission(@PathVariable Long submissionId) {
+        if (!submissionRepository.existsById(submissionId))
+            return ResponseEntity.notFound().build();
+        SseEmitter emitter = submissionEventService.subscribe(submissionId);
+        if (emitter == null)
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").build();
+
+        // read the status only after subscribing so that a verdict landing in between is not missed
+        submissionRepository.findSummaryById(submissionId).ifPresent(s -> submissionEventService.send(emitter,
+                s.getStatus().isTerminal()
+                        ? SubmissionEvent.verdict(s.getId(), s.getStatus(), s.getResultMessage())
+                        : SubmissionEvent.status(s.getId(), s.getStatus())));
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Status, verdict and timestamps only; this is what clients poll, so it never loads the code.
+     */
     @GetMapping("/{submissionId}")
-    public ResponseEntity<?> getSubmission(@PathVariable Long submissionId) {
-        return submissionRepository.findById(submissionId).map(ResponseEntity::ok)
+    public ResponseEntity<SubmissionRepository.SubmissionSummary> getSubmission(@PathVariable Long submissionId) {
+        return submissionRepository.findSummaryById(submissionId).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping("/{submissionId}/details")
+    public ResponseEntity<SubmissionDetails> getSubmissionDetails(@PathVariable Long submissionId) {
+        return submissionRepository.findById(submissionId).map(s -> ResponseEntity.ok(new SubmissionDetails(s)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Per-test verdicts with wall time, CPU time, peak memory and exit code, in test order.
+     */
+    @GetMapping("/{submissionId}/tests")
+    public ResponseEntity<List<TestResult>> getTestResults(@PathVariable Long submissionId) {
+        if (!submissionRepository.existsById(submissionId))
+            return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(testResultRepository.findBySubmissionIdOrderByTestNumber(submissionId));
+    }
+
+    // one extra row is fetched to tell whether another page follows
+    private SubmissionPage page(List<SubmissionRepository.SubmissionListItem> rows, int size) {
+        if (rows.size() <= size) return new SubmissionPage(rows, null);
+        List<SubmissionRepository.SubmissionListItem> items = rows.subList(0, size);
+        SubmissionRepository.SubmissionListItem last = items.get(size - 1);
+        return new SubmissionPage(items, last.getCreatedAt() + "_" + last.getId());
+    }
+
+    /**
+     * Keyset position "createdAt_id" of the last row of a page. A missing cursor starts from
+     * the newest submission; a malformed one parses to null.
+     */
+    private record Cursor(Instant createdAt, Long id) {
+        static Cursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) return new Cursor(END_OF_TIME, Long.MAX_VALUE);
+            int split = cursor.lastIndexOf('_');
+            if (split < 0) return null;
+            try {
+                return new Cursor(Instant.parse(cursor.substring(0, split)), Long.parseLong(cursor.substring(split + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return null;
+            }
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package com.shodhacode.backend.web;
+
+import com.shodhacode.backend.service.TraceIds;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gives every request a trace id: the caller's {@code X-Trace-Id} if it sent a usable one,
+ * otherwise a new one. The id is echoed in the response and logged with everything the
+ * request does; a submission keeps the id of the request that created it.
+ */
+@Component
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = TraceIds.fromHeader(request.getHeader(TraceIds.HEADER));
+        response.setHeader(TraceIds.HEADER, traceId);
+        MDC.put(TraceIds.MDC_KEY, traceId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(TraceIds.MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.shodhacode.backend.web.dto;
+
+import com.shodhacode.backend.model.Contest;
+import com.shodhacode.backend.model.Problem;
+import com.shodhacode.backend.model.ScoringMode;
+import com.shodhacode.backend.model.TestCase;
+import com.shodhacode.backend.service.TestDataStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What contestants see of a contest: its problems with only the test cases marked as samples,
+ * never the judge's own test data. Samples are read from the test data store and cut to a
+ * preview length, so a problem with huge tests still renders.
+ */
+public class ContestView {
+    private static final int SAMPLE_PREVIEW_CHARS = 4096;
+
+    private final Long id;
+    private final String name;
+    private final ScoringMode scoringMode;
+    private final Instant startTime;
+    private final int penaltyMinutes;
+    private final List<ProblemView> problems;
+
+    public ContestView(Contest contest, TestDataStore testData) {
+        this.id = contest.getId();
+        this.name = contest.getName();
+        this.scoringMode = contest.getScoringMode();
+        this.startTime = contest.getStartTime();
+        this.penaltyMinutes = contest.getPenaltyMinutes();
+        this.problems = contest.getProblems().stream().map(p -> new ProblemView(p, testData)).toList();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ScoringMode getScoringMode() {
+        return scoringMode;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public int getPenaltyMinutes() {
+        return penaltyMinutes;
+    }
+
+    public List<ProblemView> getProblems() {
+        return problems;
+    }
+
+    public static class ProblemView {
+        private final Long id;
+        private final String title;
+        private final String description;
+        private final Long timeLimitMs;
+        private final Integer memoryLimitMb;
+        private final List<SampleView> testCases;
+
+        public ProblemView(Problem problem, TestDataStore testData) {
+            this.id = problem.getId();
+            this.title = problem.getTitle();
+            this.description = problem.getDescription();
+            this.timeLimitMs = problem.getTimeLimitMs();
+            this.memoryLimitMb = problem.getMemoryLimitMb();
+            this.testCases = problem.getTestCases().stream()
+                    .filter(TestCase::isSample)
+                    .map(tc -> new SampleView(tc, testData)).toList();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Long getTimeLimitMs() {
+            return timeLimitMs;
+        }
+
+        public Integer getMemoryLimitMb() {
+            return memoryLimitMb;
+        }
+
+        public List<SampleView> getTestCases() {
+            return testCases;
+        }
+    }
+
+    public static class SampleView {
+        private final String inputData;
+        private final String expectedOutput;
+
+        public SampleView(TestCase testCase, TestDataStore testData) {
+            try {
+                this.inputData = testData.preview(testCase.getInputHash(), SAMPLE_PREVIEW_CHARS);
+                this.expectedOutput = testData.preview(testCase.getExpectedHash(), SAMPLE_PREVIEW_CHARS);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public String getInputData() {
+            return inputData;
+        }
+
+        public String getExpectedOutput() {
+            return expectedOutput;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.shodhacode.backend.web.dto;
+
+public class LeaderboardEntry {
+    private final int rank;
+    private final String username;
+    private final long score;
+    private final long penalty;
+
+    public LeaderboardEntry(int rank, String username, long score, long penalty) {
+        this.rank = rank;
+        this.username = username;
+        this.score = score;
+        this.penalty = penalty;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public long getPenalty() {
+        return penalty;
+    }
+}
@@ -0,0 +1,83 @@
+package com.shodhacode.backend.web.dto;
+
+import com.shodhacode.backend.model.Submission;
+import com.shodhacode.backend.model.SubmissionStatus;
+
+import java.time.Instant;
+
+/**
+ * Full view of a submission, including its source code. Only served when explicitly
+ * requested; status reads use the code-free summary instead.
+ */
+public class SubmissionDetails {
+    private final Long id;
+    private final Long contestId;
+    private final Long problemId;
+    private final String username;
+    private final String language;
+    private final String code;
+    private final SubmissionStatus status;
+    private final String resultMessage;
+    private final Instant createdAt;
+    private final Instant finishedAt;
+    private final String traceId;
+
+    public SubmissionDetails(Submission s) {
+        // ids come from the lazy proxies without loading the contest or problem
+        this.id = s.getId();
+        this.contestId = s.getContest() == null ? null : s.getContest().getId();
+        this.problemId = s.getProblem() == null ? null : s.getProblem().getId();
+        this.username = s.getUsername();
+        this.language = s.getLanguage();
+        this.code = s.getCode();
+        this.status = s.getStatus();
+        this.resultMessage = s.getResultMessage();
+        this.createdAt = s.getCreatedAt();
+        this.finishedAt = s.getFinishedAt();
+        this.traceId = s.getTraceId();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getContestId() {
+        return contestId;
+    }
+
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public SubmissionStatus getStatus() {
+        return status;
+    }
+
+    public String getResultMessage() {
+        return resultMessage;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+}
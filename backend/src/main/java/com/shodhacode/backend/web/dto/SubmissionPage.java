@@ -0,0 +1,27 @@
+package com.shodhacode.backend.web.dto;
+
+import com.shodhacode.backend.repo.SubmissionRepository;
+
+import java.util.List;
+
+/**
+ * One page of a submission history. {@code nextCursor} is passed back as {@code cursor} to
+ * get the following page and is null on the last one.
+ */
+public class SubmissionPage {
+    private final List<SubmissionRepository.SubmissionListItem> items;
+    private final String nextCursor;
+
+    public SubmissionPage(List<SubmissionRepository.SubmissionListItem> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<SubmissionRepository.SubmissionListItem> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
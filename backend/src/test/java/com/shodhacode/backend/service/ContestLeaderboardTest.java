@@ -0,0 +1,158 @@
+package com.shodhacode.backend.service;
+
+import com.shodhacode.backend.model.ProblemScore;
+import com.shodhacode.backend.model.ScoringMode;
+import com.shodhacode.backend.model.SubmissionStatus;
+import com.shodhacode.backend.service.ContestLeaderboard.RankedStanding;
+import com.shodhacode.backend.service.ContestLeaderboard.Standing;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.shodhacode.backend.model.SubmissionStatus.ACCEPTED;
+import static com.shodhacode.backend.model.SubmissionStatus.COMPILATION_ERROR;
+import static com.shodhacode.backend.model.SubmissionStatus.ERROR;
+import static com.shodhacode.backend.model.SubmissionStatus.RUNTIME_ERROR;
+import static com.shodhacode.backend.model.SubmissionStatus.TIMED_OUT;
+import static com.shodhacode.backend.model.SubmissionStatus.WRONG_ANSWER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContestLeaderboardTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+    private static final int PENALTY = 20;
+
+    private final ContestLeaderboard board = new ContestLeaderboard(1L, ScoringMode.ICPC, START, PENALTY);
+
+    @Test
+    void penaltyIsSolveTimePlusEarlierRejections() {
+        board.apply(1L, "alice", 1L, WRONG_ANSWER, 0, 2, minute(5));
+        board.apply(2L, "alice", 1L, TIMED_OUT, 1, 2, minute(10));
+        board.apply(3L, "alice", 1L, ACCEPTED, 2, 2, minute(30));
+        board.apply(4L, "alice", 2L, ACCEPTED, 2, 2, minute(45));
+
+        assertThat(standings()).containsExactly(new Standing("alice", 2, 30 + 2 * PENALTY + 45));
+    }
+
+    @Test
+    void rejectionsWithoutASolveCostNothing() {
+        board.apply(1L, "alice", 1L, WRONG_ANSWER, 0, 2, minute(5));
+        board.apply(2L, "alice", 1L, RUNTIME_ERROR, 0, 2, minute(6));
+
+        assertThat(standings()).containsExactly(new Standing("alice", 0, 0));
+    }
+
+    @Test
+    void theSameRejectionCountsOnce() {
+        assertThat(board.apply(1L, "alice", 1L, WRONG_ANSWER, 0, 2, minute(5))).isNotNull();
+        assertThat(board.apply(1L, "alice", 1L, WRONG_ANSWER, 0, 2, minute(5))).isNull();
+        board.apply(2L, "alice", 1L, ACCEPTED, 2, 2, minute(30));
+
+        assertThat(standings()).containsExactly(new Standing("alice", 1, 30 + PENALTY));
+    }
+
+    @Test
+    void rejectionsSubmittedAtTheSameInstantEachCount() {
+        board.apply(1L, "alice", 1L, WRONG_ANSWER, 0, 2, minute(5));
+        board.apply(2L, "alice", 1L, WRONG_ANSWER, 0, 2, minute(5));
+        board.apply(3L, "alice", 1L, ACCEPTED, 2, 2, minute(30));
+
+        assertThat(standings()).containsExactly(new Standing("alice", 1, 30 + 2 * PENALTY));
+    }
+
+    @Test
+    void theEarliestAcceptedSubmissionSolvesTheProblem() {
+        board.apply(1L, "alice", 1L, WRONG_ANSWER, 0, 2, minute(10));
+        board.apply(2L, "alice", 1L, ACCEPTED, 2, 2, minute(30));
+        assertThat(board.apply(3L, "alice", 1L, ACCEPTED, 2, 2, minute(50))).isNull();
+        assertThat(board.apply(4L, "alice", 1L, WRONG_ANSWER, 0, 2, minute(40))).isNull();
+        assertThat(standings()).containsExactly(new Standing("alice", 1, 30 + PENALTY));
+
+        // judged last but submitted first: it solves the problem, and the rejection after it no longer counts
+        assertThat(board.apply(5L, "alice", 1L, ACCEPTED, 2, 2, minute(8))).isNotNull();
+        assertThat(standings()).containsExactly(new Standing("alice", 1, 8));
+    }
+
+    @Test
+    void compilationErrorsAndJudgeFailuresCostNothing() {
+        board.apply(1L, "alice", 1L, COMPILATION_ERROR, 0, 2, minute(5));
+        board.apply(2L, "alice", 1L, ERROR, 0, 2, minute(6));
+        board.apply(3L, "alice", 1L, ACCEPTED, 2, 2, minute(30));
+
+        assertThat(standings()).containsExactly(new Standing("alice", 1, 30));
+    }
+
+    @Test
+    void replayingVerdictsInAnyOrderChangesNothing() {
+        Random random = new Random(42);
+        SubmissionStatus[] outcomes = {ACCEPTED, WRONG_ANSWER, WRONG_ANSWER, TIMED_OUT, COMPILATION_ERROR};
+        List<Verdict> verdicts = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            // coarse times, so that rejections share instants
+            verdicts.add(new Verdict(id, "user" + random.nextInt(10), 1L + random.nextInt(3),
+                    outcomes[random.nextInt(outcomes.length)], minute(random.nextInt(60))));
+        }
+        verdicts.forEach(v -> v.applyTo(board));
+        List<Standing> before = standings();
+        board.drainChanged();
+
+        Collections.shuffle(verdicts, random);
+        for (Verdict v : verdicts) {
+            assertThat(v.applyTo(board)).isNull();
+        }
+        assertThat(board.drainChanged()).isNull();
+        assertThat(standings()).isEqualTo(before);
+
+        ContestLeaderboard shuffled = new ContestLeaderboard(1L, ScoringMode.ICPC, START, PENALTY);
+        verdicts.forEach(v -> v.applyTo(shuffled));
+        assertThat(shuffled.page(0, 100).standings()).isEqualTo(before);
+    }
+
+    @Test
+    void ranksByScoreThenPenaltyAndNumbersTheDeltas() {
+        board.apply(1L, "alice", 1L, ACCEPTED, 2, 2, minute(30));
+        board.apply(2L, "bob", 1L, ACCEPTED, 2, 2, minute(20));
+        board.apply(3L, "carol", 1L, WRONG_ANSWER, 0, 2, minute(10));
+        LeaderboardDelta first = board.drainChanged();
+
+        assertThat(first.entries()).containsExactly(new RankedStanding(1, "bob", 1, 20),
+                new RankedStanding(2, "alice", 1, 30), new RankedStanding(3, "carol", 0, 0));
+
+        board.apply(4L, "carol", 1L, ACCEPTED, 2, 2, minute(25));
+        board.apply(5L, "carol", 2L, ACCEPTED, 2, 2, minute(26));
+        LeaderboardDelta second = board.drainChanged();
+
+        assertThat(second.sequence()).isEqualTo(first.sequence() + 1);
+        assertThat(second.entries()).containsExactly(new RankedStanding(1, "carol", 2, 25 + PENALTY + 26));
+        assertThat(board.page(0, 10).sequence()).isEqualTo(second.sequence());
+    }
+
+    @Test
+    void switchingModeReranksEveryone() {
+        board.apply(1L, "alice", 1L, ACCEPTED, 4, 4, minute(30));
+        board.apply(2L, "bob", 1L, WRONG_ANSWER, 3, 4, minute(10));
+        board.apply(3L, "bob", 2L, WRONG_ANSWER, 3, 4, minute(10));
+
+        board.configure(ScoringMode.IOI, START, PENALTY);
+
+        assertThat(standings()).containsExactly(new Standing("bob", 150, 0), new Standing("alice", 100, 0));
+    }
+
+    private List<Standing> standings() {
+        return board.page(0, 100).standings();
+    }
+
+    private record Verdict(Long id, String username, Long problemId, SubmissionStatus status, Instant at) {
+        ProblemScore applyTo(ContestLeaderboard board) {
+            return board.apply(id, username, problemId, status, status == ACCEPTED ? 2 : 0, 2, at);
+        }
+    }
+
+    private static Instant minute(int minutes) {
+        return START.plusSeconds(60L * minutes);
+    }
+}
@@ -0,0 +1,66 @@
+package com.shodhacode.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedSkipListTest {
+
+    @Test
+    void rangeSeeksToTheOffset() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        for (int i = 99; i >= 0; i--) {
+            list.add(i);
+        }
+
+        assertThat(list.range(0, 3)).containsExactly(0, 1, 2);
+        assertThat(list.range(57, 3)).containsExactly(57, 58, 59);
+        assertThat(list.range(98, 5)).containsExactly(98, 99);
+        assertThat(list.range(100, 5)).isEmpty();
+    }
+
+    @Test
+    void rejectsDuplicatesAndMissingRemovals() {
+        IndexedSkipList<String> list = new IndexedSkipList<>(Comparator.naturalOrder());
+
+        assertThat(list.add("b")).isTrue();
+        assertThat(list.add("b")).isFalse();
+        assertThat(list.remove("a")).isFalse();
+        assertThat(list.indexOf("a")).isEqualTo(-1);
+        assertThat(list.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesASortedSetUnderRandomUpdates() {
+        Random random = new Random(42);
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertThat(list.add(value)).isEqualTo(expected.add(value));
+            } else {
+                assertThat(list.remove(value)).isEqualTo(expected.remove(value));
+            }
+            if (step % 500 == 0) {
+                List<Integer> sorted = new ArrayList<>(expected);
+                assertThat(list.range(0, Integer.MAX_VALUE)).isEqualTo(sorted);
+                int offset = sorted.isEmpty() ? 0 : random.nextInt(sorted.size());
+                assertThat(list.range(offset, 10))
+                        .isEqualTo(sorted.subList(offset, Math.min(sorted.size(), offset + 10)));
+                for (int probe = 0; probe < 50; probe++) {
+                    int v = random.nextInt(2_000);
+                    assertThat(list.indexOf(v)).isEqualTo(expected.contains(v) ? expected.headSet(v).size() : -1);
+                }
+            }
+        }
+        assertThat(list.size()).isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,56 @@
+package com.shodhacode.backend.service.checker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExactCheckerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ignoresLineEndingsAndTrailingBlanks() throws IOException {
+        assertThat(check("1 2\n3\n", "1 2\r\n3\r\n").accepted()).isTrue();
+        assertThat(check("1 2\r\n3", "1 2\n3\n").accepted()).isTrue();
+        assertThat(check("1 2\n3\n", "1 2  \t\n3 \n\n\n  ").accepted()).isTrue();
+        assertThat(check("\n\n  1 2\n3", "1 2\n3").accepted()).isTrue();
+        assertThat(check("  \n\n", "").accepted()).isTrue();
+    }
+
+    @Test
+    void keepsWhitespaceInsideTheOutput() throws IOException {
+        assertThat(check("1 2", "1  2").accepted()).isFalse();
+        assertThat(check("1 2", "12").accepted()).isFalse();
+        assertThat(check("a\n\nb", "a\nb").accepted()).isFalse();
+        assertThat(check("a\n b", "a\nb").accepted()).isFalse();
+        // only a CR that ends a line is a line ending
+        assertThat(check("a\nb", "a\rb").accepted()).isFalse();
+    }
+
+    @Test
+    void saysWhereTheOutputsDiffer() throws IOException {
+        assertThat(check("1\n2\n3", "1\n2\n4")).isEqualTo(new OutputChecker.Result(false, "line 3 differs"));
+        assertThat(check("1\n2", "1\n2\n3").detail()).isEqualTo("line 3: unexpected extra output");
+        assertThat(check("1\n2\n3", "1\r\n2").detail()).isEqualTo("line 3: output ended early");
+        assertThat(check("12\n3", "1").detail()).isEqualTo("line 1: output ended early");
+    }
+
+    @Test
+    void joinsACrlfSplitAcrossReads() throws IOException {
+        // the reader's buffer holds 8192 characters, so the CR is the last one of the first read
+        String line = "x".repeat(8191);
+        assertThat(check(line + "\ny\n", line + "\r\ny\r\n").accepted()).isTrue();
+    }
+
+    private OutputChecker.Result check(String expected, String actual) throws IOException {
+        Path file = Files.writeString(dir.resolve("expected.txt"), expected);
+        return ExactChecker.INSTANCE.check(dir.resolve("input.txt"), file, new StringReader(actual));
+    }
+}
@@ -0,0 +1,67 @@
+package com.shodhacode.backend.service.checker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenCheckerTest {
+
+    private static final TokenChecker FLOAT = new TokenChecker(1e-6);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void separatesTokensByAnyWhitespace() throws IOException {
+        assertThat(check(TokenChecker.EXACT_TOKENS, "1 2\n3\n", "  1\r\n2\t3 \r\n\r\n").accepted()).isTrue();
+        assertThat(check(TokenChecker.EXACT_TOKENS, "1 2 3", "1 23").accepted()).isFalse();
+    }
+
+    @Test
+    void exactTokensDoNotCompareNumbers() throws IOException {
+        assertThat(check(TokenChecker.EXACT_TOKENS, "1", "1.0").accepted()).isFalse();
+    }
+
+    @Test
+    void acceptsNumbersWithinAbsoluteOrRelativeEpsilon() throws IOException {
+        assertThat(check(FLOAT, "0.333333333", "0.3333330").accepted()).isTrue();
+        assertThat(check(FLOAT, "0.333333333", "0.33333").accepted()).isFalse();
+        assertThat(check(FLOAT, "1000000000", "1000000500").accepted()).isTrue();
+        assertThat(check(FLOAT, "1000000000", "1000002000").accepted()).isFalse();
+        assertThat(check(FLOAT, "-2.5", "-25e-1").accepted()).isTrue();
+        assertThat(check(FLOAT, "1", ".9999999").accepted()).isTrue();
+        assertThat(check(FLOAT, "1", "+1.").accepted()).isTrue();
+        assertThat(check(new TokenChecker(0), "0.1", "0.10").accepted()).isTrue();
+    }
+
+    @Test
+    void rejectsWhatJavaParsesButIsNotADecimalNumber() throws IOException {
+        assertThat(check(FLOAT, "1", "1d").accepted()).isFalse();
+        assertThat(check(FLOAT, "1", "1f").accepted()).isFalse();
+        assertThat(check(FLOAT, "1", "0x1p0").accepted()).isFalse();
+        assertThat(check(FLOAT, "1e999", "Infinity").accepted()).isFalse();
+        assertThat(check(FLOAT, "1", "NaN").accepted()).isFalse();
+        assertThat(check(FLOAT, "NaN", "1").accepted()).isFalse();
+        assertThat(check(FLOAT, "NaN", "NaN").accepted()).isTrue();
+    }
+
+    @Test
+    void saysWhereTheOutputsDiffer() throws IOException {
+        assertThat(check(FLOAT, "1 2 3", "1 2 4").detail()).isEqualTo("token 3: expected '3', got '4'");
+        assertThat(check(FLOAT, "1 2", "1 2 3").detail()).isEqualTo("token 3: unexpected extra output");
+        assertThat(check(FLOAT, "1 2", "1").detail()).isEqualTo("token 2: output ended early");
+        assertThat(check(FLOAT, "1", "x".repeat(40)).detail())
+                .isEqualTo("token 1: expected '1', got '" + "x".repeat(32) + "...'");
+    }
+
+    private OutputChecker.Result check(TokenChecker checker, String expected, String actual) throws IOException {
+        Path file = Files.writeString(dir.resolve("expected.txt"), expected);
+        return checker.check(dir.resolve("input.txt"), file, new StringReader(actual));
+    }
+}
@@ -13,23 +13,29 @@ export default function CodeEditor({ problem, contestId }: CodeEditorProps) {
     const [language, setLanguage] = useState("java");
     const [isSubmitting, setIsSubmitting] = useState(false);
     const [submission, setSubmission] = useState<Submission | null>(null);
+    const [progress, setProgress] = useState<string | null>(null);
     const pollRef = useRef<NodeJS.Timeout | null>(null);
+    const streamRef = useRef<(() => void) | null>(null);
 
-    useEffect(() => {
-        // Clear previous polling when problem changes
+    const stopTracking = () => {
         if (pollRef.current) {
             clearInterval(pollRef.current);
             pollRef.current = null;
         }
+        if (streamRef.current) {
+            streamRef.current();
+            streamRef.current = null;
+        }
+    };
+
+    useEffect(() => {
+        // Stop following the previous submission when problem changes
+        stopTracking();
         setSubmission(null);
+        setProgress(null);
 
         // cleanup on unmount
-        return () => {
-            if (pollRef.current) {
-                clearInterval(pollRef.current);
-                pollRef.current = null;
-            }
-        };
+        return stopTracking;
     }, [problem.id]);
 
     useEffect(() => {
@@ -88,7 +94,8 @@ int main() {
             };
 
             setSubmission(stub);
-            startPolling(stub.id);
+            setProgress(null);
+            startStreaming(stub.id);
         } catch (error) {
             console.error("Submission failed:", error);
         } finally {
@@ -96,6 +103,36 @@ int main() {
         }
     };
 
+    // Follow the submission over server-sent events, falling back to polling if the
+    // stream is refused or drops before the verdict arrives.
+    const startStreaming = (submissionId: string) => {
+        stopTracking();
+        streamRef.current = apiService.subscribeToSubmission(
+            submissionId,
+            (event) => {
+                if (event.testCase !== undefined) {
+                    setProgress(`${event.completed}/${event.total} tests passed`);
+                } else if (event.message !== undefined) {
+                    setProgress(null);
+                }
+                setSubmission((prev) =>
+                    prev
+                        ? {
+                              ...prev,
+                              status: event.status as Submission["status"],
+                              resultMessage:
+                                  event.message ?? prev.resultMessage,
+                          }
+                        : prev
+                );
+            },
+            () => {
+                streamRef.current = null;
+                startPolling(submissionId);
+            }
+        );
+    };
+
     const startPolling = (submissionId: string) => {
         const interval = setInterval(async () => {
             try {
@@ -111,6 +148,7 @@ int main() {
                     s.includes("WRONG") ||
                     s.includes("TIME") ||
                     s.includes("RUNTIME") ||
+                    s.includes("MEMORY") ||
                     s.includes("COMPIL") ||
                     s.includes("ERROR") ||
                     s.includes("TIMED");
@@ -153,6 +191,12 @@ int main() {
                 color: "text-red-600",
                 canonical: "COMPILATION_ERROR",
             };
+        if (s.includes("MEMORY"))
+            return {
+                label: "Memory Limit Exceeded",
+                color: "text-yellow-600",
+                canonical: "MEMORY_LIMIT_EXCEEDED",
+            };
         if (s.includes("TIME") || s.includes("TIMED"))
             return {
                 label: "Time Limit Exceeded",
@@ -269,6 +313,11 @@ int main() {
                                     "RUNNING" && (
                                     <div className="animate-spin rounded-full h-4 w-4 border-b-2 border-indigo-600 ml-2"></div>
                                 )}
+                                {progress && (
+                                    <span className="text-xs text-gray-500 dark:text-gray-400">
+                                        {progress}
+                                    </span>
+                                )}
                             </div>
 
                             <div className="w-full">
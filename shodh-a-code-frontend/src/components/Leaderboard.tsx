@@ -1,31 +1,94 @@
-import { useState, useEffect } from "react";
+import { useState, useEffect, useRef } from "react";
 import { apiService } from "../services/api";
-import { LeaderboardEntry } from "../types";
+import { LeaderboardDelta, LeaderboardEntry } from "../types";
+
+// only the top of the board is shown and kept up to date
+const LIMIT = 100;
+
+// same order as the server: score descending, penalty ascending, then username
+const byStanding = (a: LeaderboardEntry, b: LeaderboardEntry) =>
+    b.score - a.score ||
+    (a.penalty ?? 0) - (b.penalty ?? 0) ||
+    a.username.localeCompare(b.username);
 
 interface LeaderboardProps {
     contestId: string;
+    scoringMode?: "ICPC" | "IOI";
 }
 
-export default function Leaderboard({ contestId }: LeaderboardProps) {
+export default function Leaderboard({
+    contestId,
+    scoringMode = "ICPC",
+}: LeaderboardProps) {
     const [leaderboard, setLeaderboard] = useState<LeaderboardEntry[]>([]);
     const [loading, setLoading] = useState(true);
+    // sequence of the last delta the board includes; older deltas are dropped
+    const sequenceRef = useRef(0);
+    // deltas that arrive while the board is being fetched, applied once it is in
+    const pendingRef = useRef<LeaderboardDelta[] | null>(null);
 
     useEffect(() => {
-        fetchLeaderboard();
+        let interval: NodeJS.Timeout | null = null;
 
-        // Poll leaderboard every 30 seconds
-        const interval = setInterval(fetchLeaderboard, 30000);
+        // Live deltas; the full board is (re)fetched whenever the stream (re)connects.
+        // Without a stream, fall back to polling every 30 seconds.
+        const close = apiService.subscribeToLeaderboard(
+            contestId,
+            applyDelta,
+            fetchLeaderboard,
+            () => {
+                fetchLeaderboard();
+                if (!interval) interval = setInterval(fetchLeaderboard, 30000);
+            }
+        );
 
-        return () => clearInterval(interval);
+        return () => {
+            close();
+            if (interval) clearInterval(interval);
+        };
     }, [contestId]);
 
+    const applyDelta = (delta: LeaderboardDelta) => {
+        if (pendingRef.current) {
+            pendingRef.current.push(delta);
+            return;
+        }
+        if (delta.sequence <= sequenceRef.current) return;
+        sequenceRef.current = delta.sequence;
+        setLeaderboard((prev) => merge(prev, delta));
+    };
+
+    // users ranked below the window leave it; whoever they push out drops off the end
+    const merge = (board: LeaderboardEntry[], delta: LeaderboardDelta) => {
+        const byUser = new Map(board.map((e) => [e.username, e]));
+        for (const changed of delta.entries) {
+            if (changed.rank > LIMIT) {
+                byUser.delete(changed.username);
+                continue;
+            }
+            byUser.set(changed.username, {
+                ...(byUser.get(changed.username) ?? ({} as LeaderboardEntry)),
+                ...changed,
+            });
+        }
+        return Array.from(byUser.values()).sort(byStanding).slice(0, LIMIT);
+    };
+
     const fetchLeaderboard = async () => {
+        pendingRef.current = [];
         try {
-            const data = await apiService.getLeaderboard(contestId);
-            setLeaderboard(data);
+            const page = await apiService.getLeaderboard(contestId, LIMIT);
+            const newer = (pendingRef.current ?? []).filter(
+                (d) => d.sequence > page.sequence
+            );
+            sequenceRef.current = newer.length
+                ? newer[newer.length - 1].sequence
+                : page.sequence;
+            setLeaderboard(newer.reduce(merge, page.entries));
         } catch (error) {
             console.error("Failed to fetch leaderboard:", error);
         } finally {
+            pendingRef.current = null;
             setLoading(false);
         }
     };
@@ -96,7 +159,11 @@ export default function Leaderboard({ contestId }: LeaderboardProps) {
                                             {entry.username}
                                         </p>
                                         <p className="text-xs text-gray-500 dark:text-gray-400">
-                                            {entry.solvedProblems} solved
+                                            {scoringMode === "IOI"
+                                                ? "points"
+                                                : `${entry.score} solved · ${
+                                                      entry.penalty ?? 0
+                                                  } penalty min`}
                                         </p>
                                     </div>
                                 </div>
@@ -53,6 +53,18 @@ export default function ProblemView({
                     </div>
 
                     <div className="prose dark:prose-invert max-w-none">
+                        {(selectedProblem.timeLimitMs ||
+                            selectedProblem.memoryLimitMb) && (
+                            <div className="text-xs text-gray-500 dark:text-gray-400 mb-3">
+                                {selectedProblem.timeLimitMs &&
+                                    `Time limit: ${selectedProblem.timeLimitMs / 1000} s`}
+                                {selectedProblem.timeLimitMs &&
+                                    selectedProblem.memoryLimitMb &&
+                                    " · "}
+                                {selectedProblem.memoryLimitMb &&
+                                    `Memory limit: ${selectedProblem.memoryLimitMb} MB`}
+                            </div>
+                        )}
                         <div className="text-gray-700 dark:text-gray-300 mb-6">
                             {selectedProblem.description}
                         </div>
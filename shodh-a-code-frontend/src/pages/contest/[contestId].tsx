@@ -116,7 +116,10 @@ export default function ContestPage() {
                     </div>
                     {/* Leaderboard */}
                     <div className="lg:col-span-1">
-                        <Leaderboard contestId={contest.id} />
+                        <Leaderboard
+                            contestId={contest.id}
+                            scoringMode={contest.scoringMode}
+                        />
                     </div>
                 </div>
             </div>
@@ -1,3 +1,5 @@
+import { LeaderboardDelta, LeaderboardPage, SubmissionEvent } from "../types";
+
 const API_BASE_URL = "http://localhost:8081/api";
 
 async function parseJsonOrThrow(res: Response) {
@@ -56,12 +58,75 @@ export const apiService = {
         return res.json();
     },
 
-    async getLeaderboard(contestId: string | number) {
+    /**
+     * Streams status transitions of a submission (server-sent events). Returns a function
+     * that closes the stream. onError is called when the stream cannot be used, so the
+     * caller can fall back to polling getSubmission.
+     */
+    subscribeToSubmission(
+        submissionId: string | number,
+        onEvent: (event: SubmissionEvent) => void,
+        onError: () => void
+    ) {
+        const source = new EventSource(
+            `${API_BASE_URL}/submissions/${submissionId}/events`
+        );
+        let finished = false;
+        const handle = (e: MessageEvent) => {
+            const event: SubmissionEvent = JSON.parse(e.data);
+            if (e.type === "verdict") {
+                finished = true;
+                source.close();
+            }
+            onEvent(event);
+        };
+        source.addEventListener("status", handle);
+        source.addEventListener("progress", handle);
+        source.addEventListener("verdict", handle);
+        source.onerror = () => {
+            source.close();
+            if (!finished) onError();
+        };
+        return () => source.close();
+    },
+
+    async getLeaderboard(
+        contestId: string | number,
+        limit: number
+    ): Promise<LeaderboardPage> {
         const res = await fetch(
-            `${API_BASE_URL}/contests/${contestId}/leaderboard`
+            `${API_BASE_URL}/contests/${contestId}/leaderboard?limit=${limit}`
         );
         if (!res.ok)
             throw new Error(`Failed to fetch leaderboard: ${res.status}`);
-        return res.json();
+        return {
+            entries: await res.json(),
+            sequence: Number(res.headers.get("X-Leaderboard-Sequence") ?? 0),
+        };
+    },
+
+    /**
+     * Streams leaderboard deltas for a contest. onOpen fires on every (re)connect so the
+     * caller can refetch the full board; onError fires when the stream is refused or lost
+     * for good, so the caller can fall back to polling.
+     */
+    subscribeToLeaderboard(
+        contestId: string | number,
+        onDelta: (delta: LeaderboardDelta) => void,
+        onOpen: () => void,
+        onError: () => void
+    ) {
+        const source = new EventSource(
+            `${API_BASE_URL}/contests/${contestId}/leaderboard/stream`
+        );
+        source.onopen = onOpen;
+        source.addEventListener("delta", (e: MessageEvent) =>
+            onDelta(JSON.parse(e.data))
+        );
+        source.onerror = () => {
+            // EventSource retries on its own unless the server refused the stream
+            if (source.readyState === EventSource.CLOSED) onError();
+        };
+        return () => source.close();
     },
 };
@@ -4,6 +4,8 @@ export interface Contest {
     description: string;
     startTime: string;
     endTime: string;
+    scoringMode?: "ICPC" | "IOI";
+    penaltyMinutes?: number;
     problems: Problem[];
 }
 
@@ -12,6 +14,8 @@ export interface Problem {
     title: string;
     description: string;
     difficulty: "Easy" | "Medium" | "Hard";
+    timeLimitMs?: number;
+    memoryLimitMb?: number;
     testCases: TestCase[];
 }
 
@@ -43,10 +47,37 @@ export interface Submission {
     resultMessage?: string;
 }
 
+export interface SubmissionEvent {
+    submissionId: number;
+    status: string;
+    // progress events: the test that just passed and how many have passed so far
+    testCase?: number;
+    completed?: number;
+    total?: number;
+    // verdict events
+    message?: string;
+}
+
 export interface LeaderboardEntry {
+    rank?: number;
     userId: string;
     username: string;
+    // solved problems under ICPC, points under IOI
     score: number;
+    // ICPC penalty minutes; always 0 under IOI
+    penalty?: number;
     solvedProblems: number;
     lastSubmissionTime: string;
 }
+
+// a leaderboard page with the sequence number of the last delta it already includes
+export interface LeaderboardPage {
+    entries: LeaderboardEntry[];
+    sequence: number;
+}
+
+export interface LeaderboardDelta {
+    contestId: number;
+    sequence: number;
+    entries: { rank: number; username: string; score: number; penalty: number }[];
+}